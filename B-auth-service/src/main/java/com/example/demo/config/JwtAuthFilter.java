@@ -1,7 +1,7 @@
 package com.example.demo.config;
 
 import com.example.demo.util.JwtUtils;
-import io.jsonwebtoken.Claims;
+import com.example.demo.util.VerifiedClaims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -41,10 +41,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             log.info("🔑 JWT token received: {}", token);
 
             try {
-                if (jwtUtils.validateToken(token)) {
-                    Claims claims = jwtUtils.parseToken(token);
-                    String username = claims.getSubject();
-                    String role = claims.get("role", String.class);
+                VerifiedClaims verified = jwtUtils.verify(token);
+                if (verified.isValid()) {
+                    String username = verified.getSubject();
+                    String role = verified.getRole();
                     String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
 
                     UsernamePasswordAuthenticationToken auth =
@@ -58,7 +58,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                     log.info("✅ JWT validated. User: {}, Role: {}", username, authority);
                 } else {
-                    log.error("❌ JWT validation failed");
+                    log.error("❌ JWT validation failed ({}): {}", verified.getFailure(), verified.getMessage());
                 }
             } catch (Exception e) {
                 log.error("❌ Exception during JWT parsing/validation: {}", e.getMessage(), e);
@@ -1,6 +1,8 @@
 package com.example.demo.util;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -18,6 +20,16 @@ public class JwtUtils {
     private final PublicKey publicKey;    // injected from JwtConfig
     private final long expirationMs = 24 * 60 * 60 * 1000; // 1 day
 
+    // Built once; JJWT parsers are immutable and thread-safe
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(publicKey)
+                .build();
+    }
+
     // Generate token using RSA private key
     public String generateToken(String username, String role) {
         String token = Jwts.builder()
@@ -34,21 +46,37 @@ public class JwtUtils {
     // Parse token using RSA public key
     public Claims parseToken(String token) {
         log.info("🔍 Parsing JWT: {}", token);
-        return Jwts.parserBuilder()
-                .setSigningKey(publicKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims,
+     * or the failure reason. Does not throw for invalid tokens.
+     */
+    public VerifiedClaims verify(String token) {
+        if (token == null || token.isBlank()) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.MISSING, "Token is empty");
+        }
         try {
-            parseToken(token);
-            log.info("✅ JWT is valid");
-            return true;
+            return VerifiedClaims.valid(parser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.EXPIRED, e.getMessage());
+        } catch (SignatureException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.BAD_SIGNATURE, e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.UNSUPPORTED, e.getMessage());
         } catch (JwtException | IllegalArgumentException e) {
-            log.error("❌ JWT validation error: {}", e.getMessage());
-            return false;
+            return VerifiedClaims.failed(VerifiedClaims.Failure.MALFORMED, e.getMessage());
+        }
+    }
+
+    public boolean validateToken(String token) {
+        VerifiedClaims result = verify(token);
+        if (result.isValid()) {
+            log.info("✅ JWT is valid");
+        } else {
+            log.error("❌ JWT validation error: {}", result.getMessage());
         }
+        return result.isValid();
     }
 }
@@ -13,6 +13,9 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 import com.example.demo.util.JwtUtil;
+import com.example.demo.util.VerifiedClaims;
+import com.example.demo.util.VerifiedTokenCache;
+import com.example.demo.util.VerifiedTokenCache.VerifiedToken;
 
 import java.util.Collections;
 
@@ -22,38 +25,35 @@ import java.util.Collections;
 public class JwtAuthWebFilter implements WebFilter {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
-        log.info("🔹 Incoming request: {} {}", exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+        log.debug("🔹 Incoming request: {} {}", exchange.getRequest().getMethod(), exchange.getRequest().getPath());
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            log.info("🔑 JWT token received");
+            log.debug("🔑 JWT token received");
 
-            try {
-                if (jwtUtil.validateToken(token)) {
-                    Claims claims = jwtUtil.extractAllClaims(token);
-                    String username = claims.getSubject();
-                    String role = claims.get("role", String.class);
-                    String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+            VerifiedToken verified = tokenCache.get(token);
+            if (verified == null) {
+                verified = verify(token);
+            } else {
+                log.debug("JWT served from verified-token cache");
+            }
 
-                    Authentication auth = new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority(authority))
-                    );
+            if (verified != null) {
+                Authentication auth = new UsernamePasswordAuthenticationToken(
+                        verified.getUsername(),
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority(verified.getAuthority()))
+                );
 
-                    log.info("✅ JWT validated. User: {}, Role: {}", username, authority);
+                log.debug("✅ JWT validated. User: {}, Role: {}", verified.getUsername(), verified.getAuthority());
 
-                    return chain.filter(exchange)
-                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
-                } else {
-                    log.error("❌ JWT validation failed");
-                }
-            } catch (Exception e) {
-                log.error("❌ Exception during JWT parsing/validation: {}", e.getMessage(), e);
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
             }
         } else {
             log.warn("⚠️ Missing or invalid Authorization header");
@@ -61,4 +61,27 @@ public class JwtAuthWebFilter implements WebFilter {
 
         return chain.filter(exchange);
     }
-}
\ No newline at end of file
+
+    // Full RS256 verification; successful results are cached until the token expires.
+    private VerifiedToken verify(String token) {
+        VerifiedClaims result = jwtUtil.verify(token);
+        if (!result.isValid()) {
+            jwtUtil.logFailure(result);
+            log.error("❌ JWT validation failed");
+            return null;
+        }
+
+        Claims claims = result.getClaims();
+        String role = result.getRole();
+        if (role == null) {
+            log.error("❌ JWT has no role claim");
+            return null;
+        }
+        String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : 0L;
+
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), authority, expiresAt);
+        tokenCache.put(token, verified);
+        return verified;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * In-process admission control, applied before a request is forwarded:
+ * <ul>
+ *     <li>a token-bucket rate limit per JWT subject (client IP for anonymous requests)</li>
+ *     <li>an adaptive (AIMD) concurrency limit per route</li>
+ * </ul>
+ * Requests over either limit are answered with 429 immediately, without touching the backend.
+ */
+@Component
+public class AdmissionControlFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Map<String, AdaptiveConcurrencyLimiter> routeLimiters = new ConcurrentHashMap<>();
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final MeterRegistry registry;
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+
+    public AdmissionControlFilter(
+            @Value("${gateway.admission.enabled:false}") boolean enabled,
+            @Value("${gateway.admission.rate-limit.permits-per-second:50}") double permitsPerSecond,
+            @Value("${gateway.admission.rate-limit.burst:100}") int burst,
+            @Value("${gateway.admission.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${gateway.admission.concurrency.initial-limit:64}") int initialLimit,
+            @Value("${gateway.admission.concurrency.min-limit:8}") int minLimit,
+            @Value("${gateway.admission.concurrency.max-limit:512}") int maxLimit,
+            @Value("${gateway.admission.concurrency.latency-threshold-ms:500}") long latencyThresholdMs,
+            @Value("${gateway.admission.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.rateLimiter = new TokenBucketRateLimiter(permitsPerSecond, burst, maxKeys);
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.backoffRatio = backoffRatio;
+        this.registry = registry;
+        this.rateLimited = Counter.builder("gateway.admission.rejected")
+                .tag("reason", "rate_limit")
+                .register(registry);
+        this.concurrencyLimited = Counter.builder("gateway.admission.rejected")
+                .tag("reason", "concurrency")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(subject -> admit(exchange, chain, subject));
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, GatewayFilterChain chain, String subject) {
+        String key = subject.isEmpty() ? "ip:" + clientIp(exchange) : "sub:" + subject;
+        if (!rateLimiter.tryAcquire(key)) {
+            rateLimited.increment();
+            log.debug("Rate limit exceeded for {}", key);
+            return reject(exchange);
+        }
+
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = routeLimiter(route.getId());
+        if (!limiter.tryAcquire()) {
+            concurrencyLimited.increment();
+            log.debug("Concurrency limit {} reached for route {}", limiter.getLimit(), route.getId());
+            return reject(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    limiter.release(System.nanoTime() - start, failed);
+                });
+    }
+
+    private AdaptiveConcurrencyLimiter routeLimiter(String routeId) {
+        return routeLimiters.computeIfAbsent(routeId, id -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    initialLimit, minLimit, maxLimit, latencyThresholdNanos, backoffRatio);
+            Gauge.builder("gateway.admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("route", id)
+                    .register(registry);
+            return limiter;
+        });
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set("Retry-After", "1");
+        return exchange.getResponse().setComplete();
+    }
+
+    private static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    @Override
+    public int getOrder() {
+        return 1; // After RouteMetricsFilter, so rejections show up in route latency metrics
+    }
+}
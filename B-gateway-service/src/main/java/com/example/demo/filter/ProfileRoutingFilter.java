@@ -0,0 +1,81 @@
+package com.example.demo.filter;
+
+import com.example.demo.routing.ProfileInstanceIndex;
+import com.example.demo.routing.RoutableInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Routes a request to an instance whose "profile" metadata matches the X-Profile header.
+ * <p>
+ * Runs right after {@link RouteToRequestUrlFilter} and only overwrites the gateway's
+ * request-URL attribute with the chosen instance, so the request itself is never
+ * mutated and the load balancer filter (which only handles lb:// URLs) is bypassed.
+ */
+@Component
+public class ProfileRoutingFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileRoutingFilter.class);
+
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+
+    private final ProfileInstanceIndex instanceIndex;
+
+    public ProfileRoutingFilter(ProfileInstanceIndex instanceIndex) {
+        this.instanceIndex = instanceIndex;
+    }
+
+    public GatewayFilter forService(String serviceName) {
+        return new OrderedGatewayFilter((exchange, chain) -> route(exchange, chain, serviceName), ORDER);
+    }
+
+    /**
+     * Rejects with 400 if the X-Profile header is missing or invalid,
+     * and with 503 if no instance is registered for that profile.
+     */
+    private Mono<Void> route(ServerWebExchange exchange, GatewayFilterChain chain, String serviceName) {
+        String profile = exchange.getRequest().getHeaders().getFirst("X-Profile");
+
+        if (profile == null || (!profile.equalsIgnoreCase("test") && !profile.equalsIgnoreCase("prod"))) {
+            log.warn("Rejected request: missing or invalid X-Profile header [{}]", profile);
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+
+        RoutableInstance target = instanceIndex.choose(serviceName, profile);
+        if (target == null) {
+            log.error("No service instance found for {} with profile {}", serviceName, profile);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        }
+
+        // Keep path and query as resolved by the route (including any rewrites)
+        URI routeUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (routeUrl == null) {
+            routeUrl = exchange.getRequest().getURI();
+        }
+        String rawQuery = routeUrl.getRawQuery();
+        URI targetUri = URI.create(rawQuery == null
+                ? target.getBaseUri() + routeUrl.getRawPath()
+                : target.getBaseUri() + routeUrl.getRawPath() + '?' + rawQuery);
+
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, targetUri);
+        if (log.isDebugEnabled()) {
+            log.debug("Routing {} request for profile {} to URI {}", serviceName, profile, targetUri);
+        }
+
+        return chain.filter(exchange);
+    }
+}
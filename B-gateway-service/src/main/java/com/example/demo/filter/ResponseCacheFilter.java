@@ -0,0 +1,339 @@
+package com.example.demo.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Opt-in edge cache for idempotent GETs.
+ * <p>
+ * For routes listed in gateway.response-cache.routes, successful GET responses are kept in
+ * memory (size and TTL bounded) keyed by path + query + X-Profile + caller roles, and served
+ * without a backend call until they expire. Every cached response carries an ETag, so clients
+ * sending a matching If-None-Match get a 304. Any non-GET request through a cached route
+ * drops that route's entries. Bodies are held only up to max-body-bytes while they stream;
+ * larger ones are passed through uncached. Hits replay the upstream headers.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final Set<String> NOT_REPLAYED = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length", "date", "set-cookie", "x-cache");
+
+    private final Set<String> routes;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final int maxBodyBytes;
+
+    // routeId -> cache key -> entry, so a write can drop a whole route at once
+    private final Map<String, Map<String, CachedResponse>> cache = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(@Value("${gateway.response-cache.routes:}") List<String> routes,
+                               @Value("${gateway.response-cache.ttl:30s}") Duration ttl,
+                               @Value("${gateway.response-cache.max-entries:5000}") int maxEntries,
+                               @Value("${gateway.response-cache.max-body-bytes:262144}") int maxBodyBytes,
+                               MeterRegistry registry) {
+        this.routes = routes.stream().map(String::trim).filter(r -> !r.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+        this.hits = Counter.builder("gateway.response.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("gateway.response.cache").tag("result", "miss").register(registry);
+        this.notModified = Counter.builder("gateway.response.cache").tag("result", "not_modified").register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !routes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            // Writes through a cached route invalidate what we hold for it
+            Map<String, CachedResponse> entries = cache.remove(routeId);
+            if (entries != null && !entries.isEmpty()) {
+                log.debug("Dropped {} cached responses for route {} after {}", entries.size(), routeId, request.getMethod());
+            }
+            return chain.filter(exchange);
+        }
+        if (isStreamingRequest(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        // serve() completes empty, so the anonymous case is decided before it, not with switchIfEmpty
+        return exchange.getPrincipal()
+                .filter(Authentication.class::isInstance)
+                .map(principal -> Optional.of(cacheKey(request, (Authentication) principal)))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(key -> key.isPresent()
+                        ? serve(exchange, chain, routeId, key.get())
+                        : chain.filter(exchange));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, String key) {
+        Map<String, CachedResponse> entries = cache.computeIfAbsent(routeId, id -> new ConcurrentHashMap<>());
+        CachedResponse cached = entries.get(key);
+        long now = System.currentTimeMillis();
+
+        if (cached != null && cached.expiresAt > now) {
+            return writeCached(exchange, cached);
+        }
+        if (cached != null) {
+            entries.remove(key, cached);
+        }
+
+        misses.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerHttpResponseDecorator caching = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!isCacheable(getDelegate())) {
+                    return super.writeWith(body);
+                }
+                BodyCapture capture = new BodyCapture();
+                Flux<DataBuffer> captured = Flux.from(body)
+                        .concatMap(capture::offer)
+                        .concatWith(Mono.defer(() -> {
+                            if (capture.overflowed) {
+                                return Mono.empty();
+                            }
+                            byte[] bytes = capture.drain();
+                            HttpHeaders headers = getDelegate().getHeaders();
+                            String etag = headers.getETag() != null ? headers.getETag() : etag(bytes);
+                            headers.setETag(etag);
+                            store(entries, key, new CachedResponse(bytes, replayableHeaders(headers), etag,
+                                    System.currentTimeMillis() + ttlMillis));
+                            return Mono.just(bufferFactory().wrap(bytes));
+                        }))
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .doFinally(signal -> capture.release());
+                return super.writeWith(captured);
+            }
+        };
+        return chain.filter(exchange.mutate().response(caching).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.etag);
+        response.getHeaders().set("X-Cache", "HIT");
+
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.etag)) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        hits.increment();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().addAll(cached.headers);
+        response.getHeaders().setContentLength(cached.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+    }
+
+    private boolean isCacheable(ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode() == null || response.getStatusCode().value() != HttpStatus.OK.value()) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType == null || !isStreaming(contentType);
+    }
+
+    private void store(Map<String, CachedResponse> entries, String key, CachedResponse response) {
+        if (size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(key, response);
+    }
+
+    // Expired entries are swept at most once per second, so a full cache doesn't scan everything
+    // on every store; beyond that, arbitrary entries are dropped from whichever routes hold them.
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last >= 1000 && lastPurge.compareAndSet(last, now)) {
+            cache.values().forEach(m -> m.values().removeIf(e -> e.expiresAt <= now));
+        }
+        for (Map<String, CachedResponse> routeEntries : cache.values()) {
+            Iterator<String> it = routeEntries.keySet().iterator();
+            while (size() >= maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+            if (size() < maxEntries) {
+                return;
+            }
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (Map<String, CachedResponse> entries : cache.values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+
+    // Upstream headers worth replaying on a hit: everything except per-connection / per-response ones
+    private static HttpHeaders replayableHeaders(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        upstream.forEach((name, values) -> {
+            if (!NOT_REPLAYED.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private static String cacheKey(ServerHttpRequest request, Authentication auth) {
+        String profile = request.getHeaders().getFirst("X-Profile");
+        String roles = auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String query = request.getURI().getRawQuery();
+        return request.getPath().value()
+                + (query != null ? "?" + query : "")
+                + '|' + (profile != null ? profile.toLowerCase(Locale.ROOT) : "")
+                + '|' + roles;
+    }
+
+    private static boolean isStreamingRequest(HttpHeaders headers) {
+        return headers.getAccept().stream().anyMatch(ResponseCacheFilter::isStreaming);
+    }
+
+    private static boolean isStreaming(MediaType type) {
+        return MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(type)
+                || MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(type);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Holds the body of a cacheable response while it streams, up to max-body-bytes. Once a body
+     * grows past that, what was held is written through, the rest streams as-is and nothing is cached.
+     */
+    private final class BodyCapture {
+        private final List<DataBuffer> held = new ArrayList<>();
+        private int size;
+        private boolean overflowed;
+
+        Publisher<DataBuffer> offer(DataBuffer buffer) {
+            if (overflowed) {
+                return Mono.just(buffer);
+            }
+            size += buffer.readableByteCount();
+            if (size <= maxBodyBytes) {
+                held.add(buffer);
+                return Flux.empty();
+            }
+            overflowed = true;
+            List<DataBuffer> flushed = new ArrayList<>(held);
+            held.clear();
+            flushed.add(buffer);
+            return Flux.fromIterable(flushed);
+        }
+
+        byte[] drain() {
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : held) {
+                int length = buffer.readableByteCount();
+                buffer.read(bytes, offset, length);
+                offset += length;
+            }
+            release();
+            return bytes;
+        }
+
+        // Buffers still held when the exchange is cancelled or fails
+        void release() {
+            held.forEach(DataBufferUtils::release);
+            held.clear();
+        }
+    }
+
+    private static final class CachedResponse {
+        private final byte[] body;
+        private final HttpHeaders headers;
+        private final String etag;
+        private final long expiresAt;
+
+        CachedResponse(byte[] body, HttpHeaders headers, String etag, long expiresAt) {
+            this.body = body;
+            this.headers = headers;
+            this.etag = etag;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return 2; // After admission control, before the request is forwarded
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Per-route and per-X-Profile latency histograms (p50/p99/p999) and in-flight gauges.
+ * <p>
+ * Publishes gateway.route.latency{route,profile,outcome} and gateway.route.inflight{route,profile}.
+ * Profile tags are limited to test/prod/none/other to keep metric cardinality bounded.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public RouteMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unmatched";
+        String profile = profileTag(exchange.getRequest().getHeaders().getFirst("X-Profile"));
+
+        AtomicInteger active = inFlight(routeId, profile);
+        active.incrementAndGet();
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    active.decrementAndGet();
+                    String outcome = outcome(exchange.getResponse().getStatusCode());
+                    timer(routeId, profile, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    private Timer timer(String routeId, String profile, String outcome) {
+        return timers.computeIfAbsent(routeId + '|' + profile + '|' + outcome, k ->
+                Timer.builder("gateway.route.latency")
+                        .description("Gateway request latency by route and X-Profile")
+                        .tag("route", routeId)
+                        .tag("profile", profile)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.99, 0.999)
+                        .publishPercentileHistogram()
+                        .register(registry));
+    }
+
+    private AtomicInteger inFlight(String routeId, String profile) {
+        return inFlight.computeIfAbsent(routeId + '|' + profile, k -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("gateway.route.inflight", counter, AtomicInteger::get)
+                    .description("Requests currently in flight by route and X-Profile")
+                    .tag("route", routeId)
+                    .tag("profile", profile)
+                    .register(registry);
+            return counter;
+        });
+    }
+
+    private static String profileTag(String profile) {
+        if (profile == null) {
+            return "none";
+        }
+        if (profile.equalsIgnoreCase("test")) {
+            return "test";
+        }
+        if (profile.equalsIgnoreCase("prod")) {
+            return "prod";
+        }
+        return "other";
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status == null) {
+            return "UNKNOWN";
+        }
+        int series = status.value() / 100;
+        return switch (series) {
+            case 1 -> "INFORMATIONAL";
+            case 2 -> "SUCCESS";
+            case 3 -> "REDIRECTION";
+            case 4 -> "CLIENT_ERROR";
+            case 5 -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+
+    @Override
+    public int getOrder() {
+        return 0; // Right after LoggingFilter, so the whole filter chain is timed
+    }
+}
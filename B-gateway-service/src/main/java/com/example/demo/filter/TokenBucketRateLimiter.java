@@ -0,0 +1,67 @@
+package com.example.demo.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token bucket per key, implemented as GCRA (generic cell rate algorithm):
+ * each key holds one "theoretical arrival time", updated with a single CAS, so checks are
+ * lock-free and need no Redis round-trip.
+ */
+class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            requests a key may make at once after being idle
+     * @param maxKeys          hard cap on tracked keys; idle ones are purged when it is reached
+     */
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.maxKeys = maxKeys;
+    }
+
+    boolean tryAcquire(String key) {
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxKeys) {
+                purgeIdle();
+                // Still full: every tracked key is mid-burst, so this is a flood of distinct keys.
+                // Refuse new ones rather than grow without bound or reset a limited key's bucket.
+                if (buckets.size() >= maxKeys) {
+                    return false;
+                }
+            }
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long base = current == Long.MIN_VALUE || current < now ? now : current;
+            if (base - now > burstToleranceNanos) {
+                return false;
+            }
+            if (tat.compareAndSet(current, base + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // A bucket whose arrival time is in the past is full again and behaves like a new one.
+    // Purges run at most once per second so a flood of distinct keys can't make every call O(n).
+    private void purgeIdle() {
+        long now = System.nanoTime();
+        long last = lastPurge.get();
+        if (now - last < 1_000_000_000L || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.values().removeIf(tat -> tat.get() <= now);
+    }
+}
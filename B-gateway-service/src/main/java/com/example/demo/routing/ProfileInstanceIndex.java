@@ -0,0 +1,107 @@
+package com.example.demo.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Precomputed service → profile → instances view of the discovery registry.
+ * Rebuilt on every discovery heartbeat (Eureka cache refresh), so request-time
+ * lookups are two map reads and a round-robin pick across all matching instances.
+ */
+@Slf4j
+@Component
+public class ProfileInstanceIndex {
+
+    private final DiscoveryClient discoveryClient;
+
+    // Services that have been asked for at least once; only these are indexed
+    private final Set<String> services = ConcurrentHashMap.newKeySet();
+
+    // Immutable snapshot, swapped atomically on refresh
+    private volatile Map<String, Map<String, ProfileGroup>> index = Map.of();
+
+    public ProfileInstanceIndex(DiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
+    /**
+     * Picks the next instance of the service registered with the given profile,
+     * or null if there is none.
+     */
+    public RoutableInstance choose(String serviceId, String profile) {
+        Map<String, ProfileGroup> byProfile = index.get(serviceId);
+        if (byProfile == null) {
+            byProfile = track(serviceId);
+        }
+        ProfileGroup group = byProfile.get(profile.toLowerCase(Locale.ROOT));
+        return group != null ? group.next() : null;
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void onHeartbeat() {
+        refresh();
+    }
+
+    public synchronized void refresh() {
+        Map<String, Map<String, ProfileGroup>> rebuilt = new HashMap<>();
+        for (String serviceId : services) {
+            rebuilt.put(serviceId, buildGroups(serviceId));
+        }
+        index = Map.copyOf(rebuilt);
+    }
+
+    private synchronized Map<String, ProfileGroup> track(String serviceId) {
+        Map<String, ProfileGroup> existing = index.get(serviceId);
+        if (existing != null) {
+            return existing;
+        }
+        services.add(serviceId);
+        refresh();
+        return index.get(serviceId);
+    }
+
+    private Map<String, ProfileGroup> buildGroups(String serviceId) {
+        Map<String, List<RoutableInstance>> byProfile = new HashMap<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            String profile = instance.getMetadata().get("profile");
+            if (profile != null) {
+                byProfile.computeIfAbsent(profile.toLowerCase(Locale.ROOT), p -> new ArrayList<>())
+                        .add(new RoutableInstance(instance));
+            }
+        }
+
+        Map<String, ProfileGroup> groups = new HashMap<>();
+        byProfile.forEach((profile, instances) -> groups.put(profile, new ProfileGroup(instances)));
+        log.debug("Indexed {} → {}", serviceId, byProfile.keySet());
+        return Map.copyOf(groups);
+    }
+
+    /**
+     * Instances sharing one profile, handed out round-robin.
+     */
+    private static final class ProfileGroup {
+        private final List<RoutableInstance> instances;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        ProfileGroup(List<RoutableInstance> instances) {
+            this.instances = List.copyOf(instances);
+        }
+
+        RoutableInstance next() {
+            return instances.get(Math.floorMod(cursor.getAndIncrement(), instances.size()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.routing;
+
+import lombok.Getter;
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * A discovered instance with its base URI ("scheme://host:port") resolved once,
+ * so routing only has to append the request path.
+ */
+@Getter
+public class RoutableInstance {
+
+    private final ServiceInstance instance;
+    private final String baseUri;
+
+    public RoutableInstance(ServiceInstance instance) {
+        this.instance = instance;
+        String uri = instance.getUri().toString();
+        this.baseUri = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+}
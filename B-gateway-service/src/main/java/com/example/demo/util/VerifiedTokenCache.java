@@ -0,0 +1,143 @@
+package com.example.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of JWTs that already passed RS256 verification.
+ * Entries are keyed by a SHA-256 hash of the compact token (the raw token is never kept)
+ * and are dropped once the token's own "exp" is reached, so a cached token can never
+ * outlive its signature validity.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final boolean enabled;
+    private final int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(@Value("${gateway.jwt-cache.enabled:true}") boolean enabled,
+                              @Value("${gateway.jwt-cache.max-size:10000}") int maxSize,
+                              MeterRegistry registry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("gateway.jwt.cache")
+                .tag("result", "hit")
+                .description("Requests served from the verified-token cache")
+                .register(registry);
+        this.misses = Counter.builder("gateway.jwt.cache")
+                .tag("result", "miss")
+                .description("Requests that required a full signature verification")
+                .register(registry);
+        this.evictions = Counter.builder("gateway.jwt.cache.evictions")
+                .description("Entries removed because they expired or the cache was full")
+                .register(registry);
+        Gauge.builder("gateway.jwt.cache.size", entries, Map::size)
+                .description("Number of verified tokens currently cached")
+                .register(registry);
+    }
+
+    /**
+     * Returns the cached verification result, or null if the token has to be verified.
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = hash(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /**
+     * Caches a verified token until its expiry. Tokens without "exp" are never cached.
+     */
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled || verified.getExpiresAtMillis() <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(hash(token), verified);
+    }
+
+    // Expired entries are swept at most once per second, so a full cache doesn't scan everything
+    // on every put; beyond that, arbitrary entries are dropped.
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last >= 1000 && lastPurge.compareAndSet(last, now)) {
+            entries.values().removeIf(entry -> {
+                boolean expired = entry.isExpired(now);
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+        }
+
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a successful verification: principal, granted authority and expiry.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class VerifiedToken {
+        private final String username;
+        private final String authority;
+        private final long expiresAtMillis;
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rejectsOnceLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TimeUnit.SECONDS.toNanos(1), 0.9);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsByOneOnFastSaturatedResponse() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, TimeUnit.SECONDS.toNanos(1), 0.9);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release(FAST, false);
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void slowBurstShrinksLimitOnlyOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 8, 512, TimeUnit.SECONDS.toNanos(1), 0.9);
+        for (int i = 0; i < 64; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        for (int i = 0; i < 64; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        assertEquals(57, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shrinksAgainAfterWindowButNeverBelowMin() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(32, 8, 512, TimeUnit.MILLISECONDS.toNanos(20), 0.5);
+
+        int[] expected = {16, 8, 8};
+        for (int limit : expected) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, true);
+            assertEquals(limit, limiter.getLimit());
+            Thread.sleep(30);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Open-loop overload against a simulated backend (8 workers, 5 ms per request, so about 1600
+ * requests/s) offered twice its capacity for two seconds, with AdmissionControlFilter off and on.
+ * Without admission control the backlog grows for the whole run and every request waits in it;
+ * with it, excess requests get an immediate 429 and admitted ones see a bounded queue.
+ * Latency percentiles are logged for comparison; only that every request completed is asserted.
+ */
+@Slf4j
+class AdmissionControlOverloadTest {
+
+    private static final Route ROUTE = Route.async().id("orders").uri("http://orders").predicate(e -> true).build();
+
+    private static final int WORKERS = 8;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int OFFERED_PER_SECOND = 3_200;
+    private static final int SECONDS = 2;
+
+    @Test
+    void tailLatencyUnderOverload() throws InterruptedException {
+        run("warm-up", false, OFFERED_PER_SECOND / 4);
+        run("warm-up", true, OFFERED_PER_SECOND / 4);
+
+        run("admission control off", false, OFFERED_PER_SECOND);
+        run("admission control on", true, OFFERED_PER_SECOND);
+    }
+
+    private void run(String label, boolean enabled, int perSecond) throws InterruptedException {
+        // Rate limit out of the way: this measures the per-route concurrency limit
+        AdmissionControlFilter filter = new AdmissionControlFilter(enabled, 1_000_000, 1_000_000, 100_000,
+                64, 8, 512, 50, 0.9, new SimpleMeterRegistry());
+        Scheduler backend = Schedulers.newBoundedElastic(WORKERS, 1_000_000, "backend");
+        GatewayFilterChain chain = exchange -> Mono.<Void>fromRunnable(() -> LockSupport.parkNanos(SERVICE_NANOS))
+                .subscribeOn(backend);
+
+        int requests = perSecond * SECONDS;
+        long interval = TimeUnit.SECONDS.toNanos(1) / perSecond;
+        ConcurrentLinkedQueue<Long> admitted = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> rejected = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                long due = start + i * interval;
+                while (System.nanoTime() < due) {
+                    Thread.onSpinWait();
+                }
+                MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1"));
+                exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+                long sent = System.nanoTime();
+                filter.filter(exchange, chain)
+                        .doFinally(signal -> {
+                            long latency = System.nanoTime() - sent;
+                            boolean tooMany = exchange.getResponse().getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+                            (tooMany ? rejected : admitted).add(latency);
+                            done.countDown();
+                        })
+                        .subscribe();
+            }
+            assertTrue(done.await(60, TimeUnit.SECONDS), "all requests completed");
+        } finally {
+            backend.dispose();
+        }
+
+        assertEquals(requests, admitted.size() + rejected.size());
+        if (!label.equals("warm-up")) {
+            log.info("📊 {}: {} offered at {}/s, {} admitted (p50 {} ms, p99 {} ms, max {} ms), {} rejected (p99 {} ms)",
+                    label, requests, perSecond, admitted.size(), percentile(admitted, 50), percentile(admitted, 99),
+                    percentile(admitted, 100), rejected.size(), percentile(rejected, 99));
+        }
+    }
+
+    private static String percentile(ConcurrentLinkedQueue<Long> latencies, int percentile) {
+        if (latencies.isEmpty()) {
+            return "-";
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return String.format("%.1f", sorted[Math.max(0, index)] / 1e6);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.demo.routing.ProfileInstanceIndex;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bytes allocated per routed request by ProfileRoutingFilter, which only swaps the gateway's
+ * request-URL attribute, versus the previous inline filter, which rebuilt the request and the
+ * exchange (without its per-request INFO log line). Measured with the JVM's per-thread allocation
+ * counter; logged for comparison, not asserted.
+ */
+@Slf4j
+class ProfileRoutingAllocationTest {
+
+    private static final String SERVICE = "B-ORDER-SERVICE";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final ProfileInstanceIndex index = new ProfileInstanceIndex(discoveryClient);
+    private final AtomicReference<URI> routedTo = new AtomicReference<>();
+
+    ProfileRoutingAllocationTest() {
+        ServiceInstance prod = new DefaultServiceInstance("order-1", SERVICE, "10.0.0.7", 8082, false,
+                Map.of("profile", "prod"));
+        when(discoveryClient.getInstances(SERVICE)).thenReturn(List.of(prod));
+    }
+
+    @Test
+    void bytesPerRoutedRequest() {
+        GatewayFilter current = new ProfileRoutingFilter(index).forService(SERVICE);
+        GatewayFilterChain currentChain = exchange -> {
+            routedTo.set(exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR));
+            return Mono.empty();
+        };
+        GatewayFilter previous = (exchange, chain) -> previousRouteByProfile(exchange, chain);
+        GatewayFilterChain previousChain = exchange -> {
+            routedTo.set(exchange.getRequest().getURI());
+            return Mono.empty();
+        };
+
+        measure(previous, previousChain, WARMUP);
+        measure(current, currentChain, WARMUP);
+
+        long previousBytes = measure(previous, previousChain, ITERATIONS);
+        assertEquals(URI.create("http://10.0.0.7:8082/api/orders/42"), routedTo.get());
+        long currentBytes = measure(current, currentChain, ITERATIONS);
+        assertEquals(URI.create("http://10.0.0.7:8082/api/orders/42?expand=items"), routedTo.get());
+
+        log.info("📊 rebuild request + exchange: {} bytes/request", previousBytes / ITERATIONS);
+        log.info("📊 swap request-URL attribute: {} bytes/request", currentBytes / ITERATIONS);
+    }
+
+    // Counts only what the filter allocates; building the mock exchange is excluded
+    private long measure(GatewayFilter filter, GatewayFilterChain chain, int iterations) {
+        long thread = Thread.currentThread().getId();
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(
+                    MockServerHttpRequest.get("/api/orders/42?expand=items").header("X-Profile", "prod"));
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://B-ORDER-SERVICE/api/orders/42?expand=items"));
+
+            long before = threads.getThreadAllocatedBytes(thread);
+            filter.filter(exchange, chain).block();
+            total += threads.getThreadAllocatedBytes(thread) - before;
+        }
+        return total;
+    }
+
+    // The routing filter as GatewayRoutesConfig inlined it before ProfileRoutingFilter
+    private Mono<Void> previousRouteByProfile(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String profile = exchange.getRequest().getHeaders().getFirst("X-Profile");
+        ServiceInstance target = index.choose(SERVICE, profile).getInstance();
+
+        URI targetUri = URI.create(target.getUri().toString() + exchange.getRequest().getPath().toString());
+        String token = exchange.getRequest().getHeaders().getFirst("Authorization");
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .uri(targetUri)
+                .header("Authorization", token != null ? token : "")
+                .build();
+
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class ResponseCacheFilterTest {
+
+    private static final Route ROUTE = Route.async().id("orders").uri("http://orders").predicate(e -> true).build();
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(List.of("orders"), Duration.ofMinutes(1),
+            100, 16, new SimpleMeterRegistry());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private static MockServerWebExchange exchange() {
+        var auth = new UsernamePasswordAuthenticationToken("alice", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        MockServerWebExchange exchange = MockServerWebExchange.builder(MockServerHttpRequest.get("/api/orders/1"))
+                .principal(auth)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+
+    // Upstream answering 200 with the body split into chunks
+    private GatewayFilterChain upstream(String... chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().set("X-Upstream", "order-service");
+            Flux<DataBuffer> body = Flux.fromArray(chunks)
+                    .map(c -> DefaultDataBufferFactory.sharedInstance.wrap(c.getBytes(StandardCharsets.UTF_8)));
+            return exchange.getResponse().writeWith(body);
+        };
+    }
+
+    private String serve(GatewayFilterChain chain) {
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    @Test
+    void cachesSmallBodyAndReplaysUpstreamHeaders() {
+        GatewayFilterChain chain = upstream("{\"id\":", "1}");
+        assertEquals("{\"id\":1}", serve(chain));
+
+        MockServerWebExchange hit = exchange();
+        filter.filter(hit, chain).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("{\"id\":1}", hit.getResponse().getBodyAsString().block());
+        assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("order-service", hit.getResponse().getHeaders().getFirst("X-Upstream"));
+        assertEquals(MediaType.APPLICATION_JSON, hit.getResponse().getHeaders().getContentType());
+        assertNotNull(hit.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void streamsOversizedBodyThroughWithoutCaching() {
+        // 16-byte limit: the third chunk pushes it over
+        GatewayFilterChain chain = upstream("0123456", "789abcd", "efghijk", "lmnopqr");
+
+        assertEquals("0123456789abcdefghijklmnopqr", serve(chain));
+        MockServerWebExchange second = exchange();
+        filter.filter(second, chain).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("0123456789abcdefghijklmnopqr", second.getResponse().getBodyAsString().block());
+        assertNull(second.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+}
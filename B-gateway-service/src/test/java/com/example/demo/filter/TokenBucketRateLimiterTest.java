@@ -0,0 +1,55 @@
+package com.example.demo.filter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("alice"), "request " + i + " of the burst");
+        }
+        assertFalse(limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void refillsAtSustainedRate() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("alice");
+        }
+        assertFalse(limiter.tryAcquire("alice"));
+
+        // one token every 100ms
+        Thread.sleep(150);
+
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100);
+
+        assertTrue(limiter.tryAcquire("alice"));
+        assertFalse(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+    }
+
+    @Test
+    void refusesNewKeysWhenFullOfActiveBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2);
+
+        assertTrue(limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("bob"));
+
+        // Both buckets are still refilling, so nothing is idle to purge
+        assertFalse(limiter.tryAcquire("carol"));
+        assertFalse(limiter.tryAcquire("alice"), "tracked keys keep their limit");
+    }
+}
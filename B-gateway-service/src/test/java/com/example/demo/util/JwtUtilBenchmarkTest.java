@@ -0,0 +1,70 @@
+package com.example.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cost per request of checking an RS256 token in JwtAuthWebFilter: validateToken followed by
+ * extractAllClaims (two parses and signature checks, as the filter did before) versus a single
+ * verify(). Times are logged for comparison, not asserted.
+ */
+@Slf4j
+class JwtUtilBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void verifyOnceVersusValidateThenParse() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "publicKeyPem", "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(keys.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----");
+        jwtUtil.init();
+
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim("role", "ROLE_USER")
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(keys.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+
+        Function<String, Claims> validateThenParse = t -> jwtUtil.validateToken(t) ? jwtUtil.extractAllClaims(t) : null;
+        Function<String, Claims> verifyOnce = t -> jwtUtil.verify(t).getClaims();
+
+        measure(validateThenParse, token, WARMUP);
+        measure(verifyOnce, token, WARMUP);
+
+        long twoPassNanos = measure(validateThenParse, token, ITERATIONS);
+        long onePassNanos = measure(verifyOnce, token, ITERATIONS);
+
+        log.info("📊 validateToken + extractAllClaims: {} µs/token", String.format("%.1f", twoPassNanos / 1e3 / ITERATIONS));
+        log.info("📊 verify: {} µs/token", String.format("%.1f", onePassNanos / 1e3 / ITERATIONS));
+    }
+
+    private static long measure(Function<String, Claims> check, String token, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Claims claims = check.apply(token);
+            assertEquals("alice", claims.getSubject());
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.util.VerifiedTokenCache.VerifiedToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static VerifiedToken validFor(long millis) {
+        return new VerifiedToken("alice", "ROLE_USER", System.currentTimeMillis() + millis);
+    }
+
+    private double size() {
+        return registry.get("gateway.jwt.cache.size").gauge().value();
+    }
+
+    @Test
+    void returnsCachedTokenUntilExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, registry);
+        VerifiedToken token = validFor(60_000);
+
+        cache.put("token-a", token);
+
+        assertEquals(token, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertEquals(1, registry.get("gateway.jwt.cache").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("gateway.jwt.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void dropsExpiredToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, registry);
+        cache.put("token-a", validFor(20));
+        assertNotNull(cache.get("token-a"));
+
+        Thread.sleep(30);
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, size());
+        assertEquals(1, registry.get("gateway.jwt.cache.evictions").counter().count());
+    }
+
+    @Test
+    void neverCachesTokenWithoutExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, registry);
+
+        cache.put("token-a", new VerifiedToken("alice", "ROLE_USER", 0));
+
+        assertNull(cache.get("token-a"));
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 3, registry);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, validFor(60_000));
+        }
+
+        assertEquals(3, size());
+        assertNotNull(cache.get("token-9"));
+        assertEquals(7, registry.get("gateway.jwt.cache.evictions").counter().count());
+    }
+
+    @Test
+    void prefersExpiredEntriesWhenFull() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 2, registry);
+        cache.put("short-lived", validFor(20));
+        cache.put("long-lived", validFor(60_000));
+        Thread.sleep(30);
+
+        cache.put("new", validFor(60_000));
+
+        assertNotNull(cache.get("long-lived"));
+        assertNotNull(cache.get("new"));
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 10, registry);
+
+        cache.put("token-a", validFor(60_000));
+
+        assertNull(cache.get("token-a"));
+        assertEquals(0, size());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.example.demo.model.Order;
+
+/**
+ * Compact cache codec for Order (cache.codec=binary).
+ * Layout v1: version, presence bitmask, then each present field in declaration order —
+ * id, userId (varint), productName (UTF-8), quantity (varint), price (8 bytes), orderDate.
+ * New fields go into a new version; unknown versions and corrupt entries read as a miss.
+ */
+public class OrderBinarySerializer implements RedisSerializer<Order> {
+
+    static final int VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int USER_ID = 1 << 1;
+    private static final int PRODUCT_NAME = 1 << 2;
+    private static final int QUANTITY = 1 << 3;
+    private static final int PRICE = 1 << 4;
+    private static final int ORDER_DATE = 1 << 5;
+
+    @Override
+    public byte[] serialize(Order order) throws SerializationException {
+        if (order == null) {
+            return null;
+        }
+        int present = (order.getId() != null ? ID : 0)
+                | (order.getUserId() != null ? USER_ID : 0)
+                | (order.getProductName() != null ? PRODUCT_NAME : 0)
+                | (order.getQuantity() != null ? QUANTITY : 0)
+                | (order.getPrice() != null ? PRICE : 0)
+                | (order.getOrderDate() != null ? ORDER_DATE : 0);
+
+        CompactBinary.Writer out = new CompactBinary.Writer()
+                .writeByte(VERSION)
+                .writeByte(present);
+        if ((present & ID) != 0) out.writeVarLong(order.getId());
+        if ((present & USER_ID) != 0) out.writeVarLong(order.getUserId());
+        if ((present & PRODUCT_NAME) != 0) out.writeString(order.getProductName());
+        if ((present & QUANTITY) != 0) out.writeVarLong(order.getQuantity());
+        if ((present & PRICE) != 0) out.writeDouble(order.getPrice());
+        if ((present & ORDER_DATE) != 0) out.writeDateTime(order.getOrderDate());
+        return out.toByteArray();
+    }
+
+    @Override
+    public Order deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || (bytes[0] & 0xFF) != VERSION) {
+            return null;
+        }
+        try {
+            CompactBinary.Reader in = new CompactBinary.Reader(bytes);
+            in.readByte();
+            int present = in.readByte();
+
+            Order order = new Order();
+            if ((present & ID) != 0) order.setId(in.readVarLong());
+            if ((present & USER_ID) != 0) order.setUserId(in.readVarLong());
+            if ((present & PRODUCT_NAME) != 0) order.setProductName(in.readString());
+            if ((present & QUANTITY) != 0) order.setQuantity((int) in.readVarLong());
+            if ((present & PRICE) != 0) order.setPrice(in.readDouble());
+            if ((present & ORDER_DATE) != 0) order.setOrderDate(in.readDateTime());
+            return order;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
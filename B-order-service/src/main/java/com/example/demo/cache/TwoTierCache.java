@@ -0,0 +1,389 @@
+package com.example.demo.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache with an in-process L1 (size-bounded, short TTL) in front of a Redis L2.
+ * Reads try L1, then L2 (promoting the value into L1). Writes and evictions go to L2,
+ * drop the local copy and broadcast an invalidation so other instances drop theirs.
+ * L1 keys are String.valueOf(key), which is what travels in invalidation messages.
+ *
+ * <p>Loads through {@link #get(Object, Callable)} (i.e. {@code @Cacheable(sync = true)}) are
+ * single-flight per key and JVM, and entries close to their Redis expiry are refreshed early
+ * with XFetch: a reader recomputes when {@code now - delta * beta * ln(rand) >= expiry},
+ * where delta is the average load time. Null results are returned but never cached.
+ *
+ * <p>Every local invalidation bumps the key's generation. A value read from L2 (or loaded)
+ * is only promoted into L1 if the key's generation is unchanged since before the read, so a
+ * reader that raced a put/evict cannot bring the old value back into L1.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final TwoTierCacheManager manager;
+    private final long localTtlMillis;
+    private final int localMaxSize;
+    private final double earlyRefreshBeta;
+    // L2 read that also reports the entry's remaining TTL, in the same round trip
+    private final RemoteReader remoteReader;
+
+    // Generations are striped by key hash to stay bounded; a collision only skips a promotion
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<String, LocalEntry> local = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private volatile double avgLoadMillis;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter localEvictions;
+    private final Counter coalescedLoads;
+    private final Counter earlyRefreshes;
+
+    TwoTierCache(String name, Cache remote, TwoTierCacheManager manager,
+                 long localTtlMillis, int localMaxSize, double earlyRefreshBeta,
+                 RemoteReader remoteReader, MeterRegistry registry) {
+        this.name = name;
+        this.remote = remote;
+        this.manager = manager;
+        this.localTtlMillis = localTtlMillis;
+        this.localMaxSize = localMaxSize;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.remoteReader = remoteReader;
+
+        this.l1Hits = Counter.builder("cache.tier.gets")
+                .tags("cache", name, "result", "l1_hit")
+                .description("Cache reads answered from the in-process tier")
+                .register(registry);
+        this.l2Hits = Counter.builder("cache.tier.gets")
+                .tags("cache", name, "result", "l2_hit")
+                .description("Cache reads answered from Redis after an L1 miss")
+                .register(registry);
+        this.misses = Counter.builder("cache.tier.gets")
+                .tags("cache", name, "result", "miss")
+                .description("Cache reads that missed both tiers")
+                .register(registry);
+
+        Gauge.builder("cache.tier.hit.ratio", this, c -> c.ratio(c.l1Hits))
+                .tags("cache", name, "tier", "l1")
+                .description("Share of all reads answered from L1")
+                .register(registry);
+        Gauge.builder("cache.tier.hit.ratio", this, c -> c.ratio(c.l2Hits))
+                .tags("cache", name, "tier", "l2")
+                .description("Share of all reads answered from L2")
+                .register(registry);
+        Gauge.builder("cache.tier.local.size", local, Map::size)
+                .tags("cache", name)
+                .description("Entries currently held in L1")
+                .register(registry);
+        this.localEvictions = Counter.builder("cache.tier.local.evictions")
+                .tags("cache", name)
+                .description("L1 entries dropped because L1 was full")
+                .register(registry);
+        this.coalescedLoads = Counter.builder("cache.tier.loads.coalesced")
+                .tags("cache", name)
+                .description("Misses that waited for another caller's load instead of loading themselves")
+                .register(registry);
+        this.earlyRefreshes = Counter.builder("cache.tier.loads.early")
+                .tags("cache", name)
+                .description("Entries recomputed ahead of their Redis expiry")
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = lookup(key);
+        return entry != null ? new SimpleValueWrapper(entry.value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        LocalEntry entry = lookup(key);
+        if (entry != null) {
+            if (shouldRefreshEarly(entry)) {
+                refreshEarly(key, valueLoader);
+            }
+            return (T) entry.value;
+        }
+
+        String localKey = String.valueOf(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return (T) await(existing, key, valueLoader);
+        }
+        try {
+            Object value = load(key, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidate(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        invalidate(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        manager.publishInvalidation(name, null);
+    }
+
+    // Called for invalidations published by other instances
+    void evictLocal(String localKey) {
+        generations.incrementAndGet(stripe(localKey));
+        local.remove(localKey);
+    }
+
+    void clearLocal() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        local.clear();
+    }
+
+    // L1, then L2 (promoting into L1). Returns null on a miss in both tiers.
+    private LocalEntry lookup(Object key) {
+        String localKey = String.valueOf(key);
+        long now = System.currentTimeMillis();
+
+        LocalEntry entry = local.get(localKey);
+        if (entry != null) {
+            if (entry.expiresAt > now) {
+                l1Hits.increment();
+                return entry;
+            }
+            local.remove(localKey, entry);
+        }
+
+        long generation = generations.get(stripe(localKey));
+        LocalEntry promoted = readRemote(key, localKey, now, generation);
+        if (promoted == null) {
+            misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        return promoted;
+    }
+
+    // Loader path: re-check Redis (another instance may have loaded it), then load and store
+    private Object load(Object key, Callable<?> valueLoader) throws Exception {
+        String localKey = String.valueOf(key);
+        LocalEntry promoted = readRemote(key, localKey, System.currentTimeMillis(), generations.get(stripe(localKey)));
+        if (promoted != null) {
+            return promoted.value;
+        }
+        return loadAndStore(key, valueLoader);
+    }
+
+    private LocalEntry readRemote(Object key, String localKey, long now, long generation) {
+        RemoteValue remoteValue = remoteReader.read(key);
+        if (remoteValue == null || remoteValue.value == null) {
+            return null;
+        }
+        long remoteExpiresAt = remoteValue.ttlMillis > 0 ? now + remoteValue.ttlMillis : 0;
+        return putLocal(localKey, remoteValue.value, remoteExpiresAt, now, generation);
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) throws Exception {
+        String localKey = String.valueOf(key);
+        long generation = generations.get(stripe(localKey));
+        long start = System.nanoTime();
+        Object value = valueLoader.call();
+        recordLoadTime((System.nanoTime() - start) / 1_000_000.0);
+        if (value != null) {
+            remote.put(key, value);
+            putLocal(localKey, value, 0, System.currentTimeMillis(), generation);
+        }
+        return value;
+    }
+
+    private Object await(CompletableFuture<Object> load, Object key, Callable<?> valueLoader) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private boolean shouldRefreshEarly(LocalEntry entry) {
+        if (earlyRefreshBeta <= 0 || entry.remoteExpiresAt == 0 || avgLoadMillis == 0) {
+            return false;
+        }
+        double rand = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = -avgLoadMillis * earlyRefreshBeta * Math.log(rand);
+        return System.currentTimeMillis() + gap >= entry.remoteExpiresAt;
+    }
+
+    // The caller that wins the draw recomputes; everyone else keeps serving the cached value
+    private void refreshEarly(Object key, Callable<?> valueLoader) {
+        String localKey = String.valueOf(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+        try {
+            earlyRefreshes.increment();
+            load.complete(loadAndStore(key, valueLoader));
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            log.warn("⚠️ Early refresh of {}::{} failed, serving cached value: {}", name, localKey, e.toString());
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    private void recordLoadTime(double millis) {
+        double avg = avgLoadMillis;
+        avgLoadMillis = avg == 0 ? millis : avg * 0.9 + millis * 0.1;
+    }
+
+    // L1 is never written on put: the next read promotes the value, so every instance
+    // (including this one) goes through the same invalidate-then-reload path.
+    private void invalidate(Object key) {
+        String localKey = String.valueOf(key);
+        evictLocal(localKey);
+        manager.publishInvalidation(name, localKey);
+    }
+
+    // Invalidations bump the generation before removing, so re-checking it after the put
+    // catches one that ran in between: either it removed our entry or we remove it here.
+    private LocalEntry putLocal(String localKey, Object value, long remoteExpiresAt, long now, long generation) {
+        LocalEntry entry = new LocalEntry(value, now + localTtlMillis, remoteExpiresAt);
+        int stripe = stripe(localKey);
+        if (localMaxSize <= 0 || generations.get(stripe) != generation) {
+            return entry;
+        }
+        if (local.size() >= localMaxSize) {
+            makeRoom(now);
+        }
+        local.put(localKey, entry);
+        if (generations.get(stripe) != generation) {
+            local.remove(localKey, entry);
+        }
+        return entry;
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), GENERATION_STRIPES);
+    }
+
+    // Expired entries are swept at most once per second, so a full L1 doesn't scan everything
+    // on every promotion; beyond that, arbitrary entries are dropped.
+    private void makeRoom(long now) {
+        long last = lastPurge.get();
+        if (now - last >= 1000 && lastPurge.compareAndSet(last, now)) {
+            local.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+
+        Iterator<String> it = local.keySet().iterator();
+        while (local.size() >= localMaxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            localEvictions.increment();
+        }
+    }
+
+    private double ratio(Counter tierHits) {
+        double total = l1Hits.count() + l2Hits.count() + misses.count();
+        return total == 0 ? 0 : tierHits.count() / total;
+    }
+
+    /**
+     * Reads one entry from L2. Implementations must fetch the value and its TTL in a single
+     * round trip (or report the TTL as unknown), since this runs on every L1 miss.
+     */
+    @FunctionalInterface
+    interface RemoteReader {
+        RemoteValue read(Object key);
+    }
+
+    static final class RemoteValue {
+        private final Object value;
+        // Remaining TTL in ms, 0 or negative when unknown
+        private final long ttlMillis;
+
+        RemoteValue(Object value, long ttlMillis) {
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+        }
+    }
+
+    private static final class LocalEntry {
+        private final Object value;
+        private final long expiresAt;
+        // Redis expiry observed when the entry was promoted, 0 when unknown
+        private final long remoteExpiresAt;
+
+        LocalEntry(Object value, long expiresAt, long remoteExpiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.remoteExpiresAt = remoteExpiresAt;
+        }
+    }
+}
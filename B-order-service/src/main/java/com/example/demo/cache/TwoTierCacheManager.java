@@ -0,0 +1,132 @@
+package com.example.demo.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps the Redis cache manager so every cache gets an in-process L1 tier.
+ * Invalidations are broadcast on a Redis pub/sub channel as "instanceId|cacheName|key"
+ * ("instanceId|cacheName" alone means clear); each instance ignores its own messages.
+ * A local max-size of 0 disables L1 but keeps single-flight loading and early refresh.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry registry;
+    private final String channel;
+    private final long localTtlMillis;
+    private final int localMaxSize;
+    private final double earlyRefreshBeta;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote, StringRedisTemplate redisTemplate, MeterRegistry registry,
+                               String channel, long localTtlMillis, int localMaxSize, double earlyRefreshBeta) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.registry = registry;
+        this.channel = channel;
+        this.localTtlMillis = localTtlMillis;
+        this.localMaxSize = localMaxSize;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache remoteCache = remote.getCache(n);
+            return remoteCache == null ? null
+                    : new TwoTierCache(n, remoteCache, this, localTtlMillis, localMaxSize, earlyRefreshBeta,
+                            remoteReader(remoteCache), registry);
+        });
+    }
+
+    /**
+     * Without early refresh (or for a non-Redis cache) this is a plain cache get. With it, GET and
+     * PTTL of the entry's key go out in one pipeline, so an L2 hit still costs a single round trip.
+     * Keys are written as UTF-8 strings ("prefix" + key), as configured in RedisConfig.
+     */
+    private TwoTierCache.RemoteReader remoteReader(Cache remoteCache) {
+        if (earlyRefreshBeta <= 0 || !(remoteCache instanceof RedisCache redisCache)) {
+            return key -> {
+                Cache.ValueWrapper wrapper = remoteCache.get(key);
+                return wrapper != null ? new TwoTierCache.RemoteValue(wrapper.get(), 0) : null;
+            };
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.getKeyPrefixFor(redisCache.getName());
+        return key -> {
+            byte[] rawKey = (prefix + key).getBytes(StandardCharsets.UTF_8);
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+                return null;
+            }, RedisSerializer.byteArray());
+            if (replies.size() < 2 || !(replies.get(0) instanceof byte[] bytes)) {
+                return null;
+            }
+            Object value = config.getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+            long ttl = replies.get(1) instanceof Long pttl ? pttl : -1;
+            return new TwoTierCache.RemoteValue(value, ttl);
+        };
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    // A lost message only means another instance serves its L1 copy until the L1 TTL expires
+    void publishInvalidation(String cacheName, String key) {
+        String message = key == null
+                ? instanceId + "|" + cacheName
+                : instanceId + "|" + cacheName + "|" + key;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not publish cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 2) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.demo.client;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.example.demo.config.FeignConfig;
-import com.example.demo.dto.UserResponse;
+import com.example.demo.service.UserServiceUnavailableException;
 
 @FeignClient(
     name = "B-USER-SERVICE",
@@ -14,15 +18,25 @@ import com.example.demo.dto.UserResponse;
     fallback = UserClient.UserClientFallback.class
 )
 public interface UserClient {
-    
-    @GetMapping("/api/users")
-    List<UserResponse> getAllUsers();
 
+    @GetMapping("/api/users/{id}/exists")
+    boolean userExists(@PathVariable("id") Long id);
+
+    // Returns the subset of ids that exist
+    @PostMapping("/api/users/exists")
+    List<Long> findExistingUserIds(@RequestBody Collection<Long> ids);
+
+    // An outage must not read as "user does not exist" (and be negatively cached): fail instead,
+    // so OrderService's circuit breaker / the controller's 503 handle it
     class UserClientFallback implements UserClient {
         @Override
-        public List<UserResponse> getAllUsers() {
-            // Fallback logic: return an empty list or cached data
-            return List.of(); // Return an empty list as a fallback
+        public boolean userExists(Long id) {
+            throw new UserServiceUnavailableException("user-service unavailable, cannot check user " + id);
+        }
+
+        @Override
+        public List<Long> findExistingUserIds(Collection<Long> ids) {
+            throw new UserServiceUnavailableException("user-service unavailable, cannot check " + ids.size() + " users");
         }
     }
 }
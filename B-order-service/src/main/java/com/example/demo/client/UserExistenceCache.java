@@ -0,0 +1,175 @@
+package com.example.demo.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local near-cache of "does user X exist", in front of the user-service lookup.
+ * <p>
+ * Known users are cached for a short TTL, unknown ids for an even shorter one (negative
+ * caching). Entries are also dropped as soon as user-service publishes a change for that
+ * user, so the TTL only bounds staleness when an event is missed.
+ */
+@Slf4j
+@Component
+public class UserExistenceCache {
+
+    private final UserClient userClient;
+    private final long positiveTtlMillis;
+    private final long negativeTtlMillis;
+    private final int maxSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a lookup only stores its answer if its id wasn't invalidated since it started
+    private final AtomicLong invalidationSeq = new AtomicLong();
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final DistributionSummary entryAge;
+
+    public UserExistenceCache(UserClient userClient,
+                              @Value("${order.user-cache.positive-ttl:60s}") Duration positiveTtl,
+                              @Value("${order.user-cache.negative-ttl:5s}") Duration negativeTtl,
+                              @Value("${order.user-cache.max-size:10000}") int maxSize,
+                              MeterRegistry registry) {
+        this.userClient = userClient;
+        this.positiveTtlMillis = positiveTtl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        this.maxSize = maxSize;
+
+        this.hits = Counter.builder("order.user.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("order.user.cache").tag("result", "miss").register(registry);
+        this.invalidations = Counter.builder("order.user.cache.invalidations")
+                .description("Entries dropped because user-service published a change")
+                .register(registry);
+        this.entryAge = DistributionSummary.builder("order.user.cache.staleness")
+                .description("Age of a cache entry when it was served")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder("order.user.cache.size", entries, Map::size).register(registry);
+    }
+
+    public boolean exists(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            entryAge.record(now - entry.loadedAt);
+            return entry.exists;
+        }
+
+        misses.increment();
+        long seq = invalidationSeq.get();
+        boolean exists = userClient.userExists(userId);
+        put(userId, exists, now, seq);
+        return exists;
+    }
+
+    /**
+     * Batch variant: returns the ids that do not exist. Cached ids are answered locally,
+     * the rest with a single batch lookup.
+     */
+    public Set<Long> findUnknown(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Set<Long> unknown = new HashSet<>();
+        Set<Long> toLoad = new HashSet<>();
+        for (Long userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                entryAge.record(now - entry.loadedAt);
+                if (!entry.exists) {
+                    unknown.add(userId);
+                }
+            } else {
+                misses.increment();
+                toLoad.add(userId);
+            }
+        }
+
+        if (!toLoad.isEmpty()) {
+            long seq = invalidationSeq.get();
+            Set<Long> existing = new HashSet<>(userClient.findExistingUserIds(toLoad));
+            for (Long userId : toLoad) {
+                boolean exists = existing.contains(userId);
+                put(userId, exists, now, seq);
+                if (!exists) {
+                    unknown.add(userId);
+                }
+            }
+        }
+        return unknown;
+    }
+
+    /**
+     * Drops the entry and leaves a marker, so a lookup of this id that is still in flight
+     * (and may have read the old answer) does not cache it afterwards.
+     */
+    public void invalidate(Long userId) {
+        Entry previous = entries.put(userId, Entry.invalidated(invalidationSeq.incrementAndGet()));
+        if (previous != null && previous.invalidatedSeq == 0) {
+            invalidations.increment();
+            log.debug("User {} evicted from existence cache", userId);
+        }
+    }
+
+    private void put(Long userId, boolean exists, long now, long lookupSeq) {
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        long ttl = exists ? positiveTtlMillis : negativeTtlMillis;
+        Entry loaded = new Entry(exists, now, now + ttl, 0);
+        entries.compute(userId, (id, current) ->
+                current != null && current.invalidatedSeq > lookupSeq ? current : loaded);
+    }
+
+    // Expired entries are swept at most once per second, so a full cache doesn't scan everything
+    // on every lookup; beyond that, arbitrary entries are dropped.
+    private void makeRoom(long now) {
+        long last = lastPurge.get();
+        if (now - last >= 1000 && lastPurge.compareAndSet(last, now)) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+        }
+        Iterator<Long> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final boolean exists;
+        private final long loadedAt;
+        private final long expiresAt;
+        // > 0 for an invalidation marker: never served, purged like any expired entry
+        private final long invalidatedSeq;
+
+        Entry(boolean exists, long loadedAt, long expiresAt, long invalidatedSeq) {
+            this.exists = exists;
+            this.loadedAt = loadedAt;
+            this.expiresAt = expiresAt;
+            this.invalidatedSeq = invalidatedSeq;
+        }
+
+        static Entry invalidated(long seq) {
+            return new Entry(false, 0, 0, seq);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.client;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.CacheRefreshedEvent;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.EurekaEventListener;
+import com.netflix.discovery.shared.Application;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cached view of whether B-USER-SERVICE has any UP instance in Eureka.
+ * Recomputed on every Eureka cache refresh, so the order hot path reads a single volatile
+ * field instead of walking the registry.
+ */
+@Slf4j
+@Component
+public class UserServiceAvailability {
+
+    private static final String SERVICE_ID = "B-USER-SERVICE";
+
+    private final EurekaClient eurekaClient;
+    private final EurekaEventListener listener = event -> {
+        if (event instanceof CacheRefreshedEvent) {
+            refresh();
+        }
+    };
+
+    private volatile int upInstances;
+
+    public UserServiceAvailability(EurekaClient eurekaClient) {
+        this.eurekaClient = eurekaClient;
+    }
+
+    @PostConstruct
+    public void init() {
+        eurekaClient.registerEventListener(listener);
+        refresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eurekaClient.unregisterEventListener(listener);
+    }
+
+    public boolean isAvailable() {
+        return upInstances > 0;
+    }
+
+    public int getUpInstances() {
+        return upInstances;
+    }
+
+    void refresh() {
+        Application application = eurekaClient.getApplication(SERVICE_ID);
+        int count = 0;
+        if (application != null) {
+            for (InstanceInfo instance : application.getInstances()) {
+                if (instance.getStatus() == InstanceInfo.InstanceStatus.UP) {
+                    count++;
+                }
+            }
+        }
+        if (count != upInstances) {
+            log.info("{} instances UP in Eureka: {} → {}", SERVICE_ID, upInstances, count);
+        }
+        upInstances = count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.OrderEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    // Wait up to linger-ms to fill batch-size bytes per partition before sending
+    @Value("${order.kafka.producer.linger-ms:10}")
+    private int lingerMs;
+
+    @Value("${order.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    // none | gzip | snappy | lz4 | zstd — applied per batch, so it pays off with linger
+    @Value("${order.kafka.producer.compression:lz4}")
+    private String compression;
+
+    // Idempotent producer: acks=all, retries without duplicates or reordering (max 5 in flight)
+    @Value("${order.kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
+    // Kafka requires delivery-timeout-ms >= linger-ms + request-timeout-ms, or the producer won't start
+    @Value("${order.kafka.producer.delivery-timeout-ms:30000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${order.kafka.producer.request-timeout-ms:15000}")
+    private int requestTimeoutMs;
+
+    // Record key → partition: userId keeps each user's events in order on one partition
+    @Value("${order.kafka.key:userId}")
+    private String keyField;
+
+    /**
+     * Picks the record key of an order event (order.kafka.key = userId | orderId | none).
+     * A null key lets the producer spread events without any ordering guarantee.
+     */
+    @Bean
+    public Function<OrderEvent, String> orderEventKeyExtractor() {
+        switch (keyField.toLowerCase()) {
+            case "userid":
+                return OrderEvent::getUserId;
+            case "orderid":
+                return OrderEvent::getOrderId;
+            case "none":
+                return event -> null;
+            default:
+                throw new IllegalArgumentException("Unsupported order.kafka.key: " + keyField);
+        }
+    }
+
+    // ✅ ProducerFactory for OrderEvent, tuned for throughput
+    @Bean
+    public ProducerFactory<String, OrderEvent> orderEventProducerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        props.put(ProducerConfig.ACKS_CONFIG, idempotence ? "all" : "1");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    // ✅ KafkaTemplate for order events (orders-topic)
+    @Bean
+    public KafkaTemplate<String, OrderEvent> orderEventKafkaTemplate() {
+        return new KafkaTemplate<>(orderEventProducerFactory());
+    }
+}
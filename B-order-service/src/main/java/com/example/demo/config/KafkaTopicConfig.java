@@ -1,6 +1,7 @@
 package com.example.demo.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -9,10 +10,15 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+    // Events are keyed (see KafkaProducerConfig); raising this remaps keys to partitions,
+    // so per-key order only holds for events produced after the change
+    @Value("${order.kafka.partitions:3}")
+    private int partitions;
+
     @Bean
     public NewTopic ordersTopic() {
         return TopicBuilder.name("orders-topic")
-                .partitions(3)         // configure partitions
+                .partitions(partitions) // configure partitions
                 .replicas(1)           // replicas (1 for dev; >=2 in prod)
                 .build();
     }
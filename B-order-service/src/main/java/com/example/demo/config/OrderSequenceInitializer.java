@@ -0,0 +1,69 @@
+package com.example.demo.config;
+
+import com.example.demo.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Moves orders_seq past the ids already in the orders table.
+ * <p>
+ * Orders used to get IDENTITY ids, so on an existing database a freshly created orders_seq
+ * starts at 1 and would hand out ids that are already taken. This runs once the schema is
+ * in place (it depends on the EntityManagerFactory) and before the web server accepts
+ * requests, and only ever raises the sequence. Disable with order.id-sequence.seed-on-startup=false
+ * and run the equivalent by hand:
+ * <pre>
+ * -- PostgreSQL
+ * SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+ * -- MySQL (table-backed sequence)
+ * UPDATE orders_seq SET next_val = (SELECT m FROM (SELECT COALESCE(MAX(id), 0) + 50 AS m FROM orders) t);
+ * </pre>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "order.id-sequence.seed-on-startup", havingValue = "true", matchIfMissing = true)
+public class OrderSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Injected only so the schema (and orders_seq) exists before we touch it
+    public OrderSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+            // A whole allocation block above the highest id, whichever end of the block Hibernate hands out first
+            long floor = (maxId != null ? maxId : 0L) + Order.ID_ALLOCATION_SIZE;
+
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            String product = database != null ? database.toLowerCase(Locale.ROOT) : "";
+            if (product.contains("postgres")) {
+                Long current = jdbcTemplate.queryForObject("SELECT last_value FROM orders_seq", Long.class);
+                if (current == null || current < floor) {
+                    jdbcTemplate.queryForObject("SELECT setval('orders_seq', ?)", Long.class, floor);
+                    log.info("🔢 orders_seq raised from {} to {} (max order id {})", current, floor, maxId);
+                }
+            } else if (product.contains("mysql") || product.contains("mariadb")) {
+                int updated = jdbcTemplate.update("UPDATE orders_seq SET next_val = ? WHERE next_val < ?", floor, floor);
+                if (updated > 0) {
+                    log.info("🔢 orders_seq raised to {} (max order id {})", floor, maxId);
+                }
+            } else {
+                log.warn("⚠️ Not seeding orders_seq on {}: make sure it starts above {}", database, maxId);
+            }
+        } catch (DataAccessException e) {
+            log.error("❌ Could not seed orders_seq, new ids may collide with existing orders: {}", e.getMessage());
+        }
+    }
+}
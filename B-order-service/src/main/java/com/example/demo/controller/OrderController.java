@@ -1,8 +1,11 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +13,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.demo.dto.OrderPage;
 import com.example.demo.model.Order;
 import com.example.demo.service.DuplicateOrderException;
 import com.example.demo.service.OrderService;
+import com.example.demo.service.UnknownUserException;
+import com.example.demo.service.UserServiceUnavailableException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,7 +32,10 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody Order order){
@@ -31,6 +44,25 @@ public class OrderController {
             return ResponseEntity.ok(orderService.createOrderWithLock(order));
         } catch (DuplicateOrderException e) {
             return ResponseEntity.status(409).body(null); // 409 Conflict
+        } catch (UnknownUserException e) {
+            return ResponseEntity.unprocessableEntity().body(null); // 422 unknown ordering user
+        } catch (UserServiceUnavailableException e) {
+            return ResponseEntity.status(503).body(null); // user-service down: retry later
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<Order>> createOrders(@RequestBody List<Order> orders) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            orders.forEach(order -> order.setOrderDate(now));
+            return ResponseEntity.ok(orderService.createOrders(orders));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (UnknownUserException e) {
+            return ResponseEntity.unprocessableEntity().body(null);
+        } catch (UserServiceUnavailableException e) {
+            return ResponseEntity.status(503).body(null);
         }
     }
 
@@ -39,6 +71,27 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    // GET /api/orders?after=<id>&limit=<n> → one keyset page plus the cursor for the next one
+    @GetMapping(params = "limit")
+    public ResponseEntity<OrderPage> getOrdersPage(@RequestParam(defaultValue = "0") long after,
+                                                   @RequestParam int limit) {
+        return ResponseEntity.ok(orderService.getOrdersPage(after, limit));
+    }
+
+    // Accept: application/x-ndjson → every order, one JSON document per line, written as it is read
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamOrders() {
+        StreamingResponseBody body = out -> orderService.forEachOrder(order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         Order order = orderService.getOrderById(id);
@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.OrderEvent;
+import com.example.demo.dto.OrderEventResult;
 import com.example.demo.service.OrderProducerService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,8 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 // REST API controller to accept new order requests
@@ -35,19 +38,19 @@ public class OrderProducerController {
     }
 
 
+    // Publishes the batch and reports per-event outcomes: 200 if every event was acknowledged, 207 otherwise
     @PostMapping("/batch")
-    public String placeOrders(@RequestBody List<OrderEvent> orderEvents,
-                            HttpServletRequest request) {
+    public ResponseEntity<List<OrderEventResult>> placeOrders(@RequestBody List<OrderEvent> orderEvents,
+                                                              HttpServletRequest request) {
 
         String authHeader = request.getHeader("Authorization");
-        for (OrderEvent orderEvent : orderEvents) {
-            // attach JWT if present
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                orderEvent.setJwtToken(authHeader.substring(7));
-            }
-            producer.sendOrderEvent(orderEvent); // send each event
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String jwt = authHeader.substring(7);
+            orderEvents.forEach(orderEvent -> orderEvent.setJwtToken(jwt)); // attach JWT to every event
         }
 
-        return "✅ Batch of " + orderEvents.size() + " orders sent!";
+        List<OrderEventResult> results = producer.sendOrderEvents(orderEvents);
+        boolean allSent = results.stream().allMatch(r -> r.getStatus() == OrderEventResult.Status.SENT);
+        return ResponseEntity.status(allSent ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(results);
     }
 }
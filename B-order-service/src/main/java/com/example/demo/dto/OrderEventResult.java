@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of publishing one event of a batch; partition/offset are set only when SENT
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEventResult {
+
+    public enum Status { SENT, FAILED, TIMED_OUT }
+
+    private String orderId;
+    private Status status;
+    private Integer partition;
+    private Long offset;
+    private String error;
+}
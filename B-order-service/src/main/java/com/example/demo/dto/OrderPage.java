@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.example.demo.model.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One keyset page of orders; nextCursor is the "after" value for the next page, null on the last page
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPage {
+    private List<Order> items;
+    private Long nextCursor;
+}
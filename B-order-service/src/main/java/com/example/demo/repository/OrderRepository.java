@@ -1,6 +1,12 @@
 package com.example.demo.repository;
+import java.util.List;
+
 import com.example.demo.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-}
\ No newline at end of file
+
+    // Keyset page: walks the primary key index, cost does not grow with the page number
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
@@ -0,0 +1,151 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Queue-and-coalesce alternative to rejecting contended orders.
+ * <p>
+ * Every order is queued per product. Whichever caller gets the product lock takes one batch
+ * (up to order.coalesce.max-batch-size) off the queue, saves it with one saveAll and releases
+ * the lock; the other callers just wait for their order to be completed by a holder. Callers
+ * whose order is still queued keep retrying the lock while they wait, so the next batch is
+ * drained by one of them and an order queued just as the previous holder released is never
+ * stranded. Holding the lock for one batch only keeps each holder's request (and the Redis
+ * lease) short on a busy product. Empty queues are dropped from the map.
+ */
+@Slf4j
+@Service
+public class OrderCoalescer {
+
+    private final OrderLockService orderLockService;
+    private final OrderRepository orderRepository;
+    private final long maxWaitMillis;
+    private final long pollMillis;
+    private final int maxBatchSize;
+
+    private final Map<String, Queue<PendingOrder>> queues = new ConcurrentHashMap<>();
+
+    public OrderCoalescer(OrderLockService orderLockService,
+                          OrderRepository orderRepository,
+                          @Value("${order.coalesce.max-wait:10s}") Duration maxWait,
+                          @Value("${order.coalesce.poll-interval:20ms}") Duration pollInterval,
+                          @Value("${order.coalesce.max-batch-size:500}") int maxBatchSize) {
+        this.orderLockService = orderLockService;
+        this.orderRepository = orderRepository;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.pollMillis = Math.max(1, pollInterval.toMillis());
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues the order and returns once it has been saved, by this caller or by the lock holder.
+     *
+     * @throws DuplicateOrderException if the order could not be applied within order.coalesce.max-wait
+     */
+    public Order submit(Order order) {
+        String product = order.getProductName();
+        Queue<PendingOrder> queue = queues.computeIfAbsent(product, p -> new ConcurrentLinkedQueue<>());
+        PendingOrder pending = new PendingOrder(order);
+        queue.add(pending);
+
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        while (!pending.result.isDone()) {
+            OrderLockService.LockHandle lock = orderLockService.tryAcquireNow(product);
+            if (lock != null) {
+                try {
+                    drainBatch(product, queue);
+                } finally {
+                    lock.release();
+                }
+                removeIfEmpty(product, queue);
+                continue;
+            }
+
+            if (System.currentTimeMillis() >= deadline && queue.remove(pending)) {
+                removeIfEmpty(product, queue);
+                log.warn("⚠️ Order for '{}' not applied within {} ms", product, maxWaitMillis);
+                throw new DuplicateOrderException("Order for '" + product + "' could not be applied in time");
+            }
+            await(pending, pollMillis);
+        }
+        return await(pending, 0L);
+    }
+
+    // Called with the product lock held: saves at most one batch
+    private void drainBatch(String product, Queue<PendingOrder> queue) {
+        List<PendingOrder> batch = new ArrayList<>(Math.min(maxBatchSize, 64));
+        PendingOrder next;
+        while (batch.size() < maxBatchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Order> saved = orderRepository.saveAll(batch.stream().map(p -> p.order).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(saved.get(i));
+            }
+            log.info("✅ Saved {} coalesced order(s) for '{}'", batch.size(), product);
+        } catch (RuntimeException e) {
+            log.error("❌ Coalesced save of {} order(s) for '{}' failed: {}", batch.size(), product, e.getMessage());
+            batch.forEach(p -> p.result.completeExceptionally(e));
+        }
+    }
+
+    // A caller still holding a reference to a removed queue keeps draining it itself,
+    // so removal never strands an order; later callers simply start a fresh queue.
+    private void removeIfEmpty(String product, Queue<PendingOrder> queue) {
+        if (queue.isEmpty()) {
+            queues.remove(product, queue);
+        }
+    }
+
+    /**
+     * Waits for the order's result; a timeout of 0 waits until it is done.
+     * Returns null if the timeout elapsed first.
+     */
+    private static Order await(PendingOrder pending, long timeoutMillis) {
+        try {
+            return timeoutMillis > 0
+                    ? pending.result.get(timeoutMillis, TimeUnit.MILLISECONDS)
+                    : pending.result.get();
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for coalesced order", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class PendingOrder {
+        private final Order order;
+        private final CompletableFuture<Order> result = new CompletableFuture<>();
+
+        PendingOrder(Order order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-product distributed lock on Redis, behind a per-product in-JVM lock.
+ * <p>
+ * Concurrent requests for the same product on this instance queue up on a local lock
+ * first, so only one of them at a time makes the Redis round-trip. Local locks exist only
+ * while somebody holds or waits for them, and unrelated products never share one.
+ * <p>
+ * Each acquisition stores a random owner token (SET NX PX). Release is an atomic Lua
+ * compare-and-delete, so an owner can only remove its own lock, never one that expired
+ * and was taken by somebody else. With the watchdog enabled, the lease is extended
+ * every third of its length while the owner still holds it.
+ */
+@Slf4j
+@Service
+public class OrderLockService {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('del', KEYS[1]) " +
+            "else return 0 end", Long.class);
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "else return 0 end", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long leaseMillis;
+    private final long localWaitMillis;
+    private final Map<String, LocalLock> localLocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+
+    public OrderLockService(StringRedisTemplate redisTemplate,
+                            @Value("${order.lock.lease-time:10s}") Duration leaseTime,
+                            @Value("${order.lock.watchdog-enabled:false}") boolean watchdogEnabled,
+                            @Value("${order.lock.local-wait:5s}") Duration localWait) {
+        this.redisTemplate = redisTemplate;
+        this.leaseMillis = leaseTime.toMillis();
+        this.localWaitMillis = localWait.toMillis();
+        this.watchdog = watchdogEnabled
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "order-lock-watchdog");
+                    t.setDaemon(true);
+                    return t;
+                })
+                : null;
+    }
+
+    /**
+     * Takes the lock for a product: waits up to order.lock.local-wait for the product's local
+     * lock, then tries once on Redis.
+     *
+     * @return the held lock, or null if another owner holds it
+     */
+    public LockHandle tryAcquire(String productName) {
+        return tryAcquire(productName, localWaitMillis);
+    }
+
+    /**
+     * Takes the lock for a product only if neither the local lock nor Redis is held right now.
+     */
+    public LockHandle tryAcquireNow(String productName) {
+        return tryAcquire(productName, 0L);
+    }
+
+    private LockHandle tryAcquire(String productName, long waitMillis) {
+        LocalLock local = retainLocal(productName);
+        try {
+            if (!local.lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                releaseLocal(productName, local);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseLocal(productName, local);
+            return null;
+        }
+
+        try {
+            LockHandle handle = acquireRemote(productName, local);
+            if (handle == null) {
+                unlockLocal(productName, local);
+            }
+            return handle;
+        } catch (RuntimeException e) {
+            unlockLocal(productName, local);
+            throw e;
+        }
+    }
+
+    // Reference-counted so the map only holds products somebody is holding or waiting for
+    private LocalLock retainLocal(String productName) {
+        return localLocks.compute(productName, (k, local) -> {
+            LocalLock retained = local != null ? local : new LocalLock();
+            retained.users++;
+            return retained;
+        });
+    }
+
+    private void releaseLocal(String productName, LocalLock local) {
+        localLocks.computeIfPresent(productName, (k, current) ->
+                current == local && --current.users == 0 ? null : current);
+    }
+
+    private void unlockLocal(String productName, LocalLock local) {
+        local.lock.unlock();
+        releaseLocal(productName, local);
+    }
+
+    private LockHandle acquireRemote(String productName, LocalLock local) {
+        String key = "order-lock:" + productName;
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(key, token, leaseMillis, TimeUnit.MILLISECONDS);
+        if (!Boolean.TRUE.equals(acquired)) {
+            return null;
+        }
+
+        ScheduledFuture<?> renewal = null;
+        if (watchdog != null) {
+            long period = Math.max(1, leaseMillis / 3);
+            renewal = watchdog.scheduleAtFixedRate(() -> renew(key, token), period, period, TimeUnit.MILLISECONDS);
+        }
+        return new LockHandle(productName, key, token, renewal, local);
+    }
+
+    private void renew(String key, String token) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(leaseMillis));
+            if (renewed == null || renewed == 0L) {
+                log.warn("⚠️ Lost lock {} before renewal", key);
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to renew lock {}: {}", key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    /**
+     * A held lock. {@link #release()} must be called in a finally block, on the acquiring thread.
+     */
+    public final class LockHandle {
+        private final String productName;
+        private final String key;
+        private final String token;
+        private final ScheduledFuture<?> renewal;
+        private final LocalLock local;
+
+        private LockHandle(String productName, String key, String token, ScheduledFuture<?> renewal, LocalLock local) {
+            this.productName = productName;
+            this.key = key;
+            this.token = token;
+            this.renewal = renewal;
+            this.local = local;
+        }
+
+        public void release() {
+            try {
+                releaseRemote();
+            } finally {
+                unlockLocal(productName, local);
+            }
+        }
+
+        private void releaseRemote() {
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            try {
+                Long deleted = redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+                if (deleted == null || deleted == 0L) {
+                    log.warn("⚠️ Lock {} expired before it was released", key);
+                } else {
+                    log.debug("🔓 Lock released for {}", key);
+                }
+            } catch (Exception e) {
+                // The lease still bounds how long the key can outlive us
+                log.error("❌ Failed to release lock {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private static final class LocalLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Holders plus waiters; only changed inside localLocks.compute for this product
+        private int users;
+    }
+}
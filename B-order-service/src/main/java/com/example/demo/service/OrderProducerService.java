@@ -1,28 +1,137 @@
 package com.example.demo.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 
 import com.example.demo.aspect.TrackExecution;
 import com.example.demo.dto.OrderEvent;
+import com.example.demo.dto.OrderEventResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class OrderProducerService {
 
     private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
     private final String topicName;
+    private final Function<OrderEvent, String> keyExtractor;
+
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+
+    @Value("${order.kafka.batch-timeout:10s}")
+    private Duration batchTimeout;
 
     // Inject KafkaTemplate and NewTopic (from KafkaTopicConfig)
     public OrderProducerService(KafkaTemplate<String, OrderEvent> kafkaTemplate,
-                                NewTopic ordersTopic) {
+                                NewTopic ordersTopic,
+                                Function<OrderEvent, String> orderEventKeyExtractor,
+                                MeterRegistry registry) {
         this.kafkaTemplate = kafkaTemplate;
         this.topicName = ordersTopic.name(); // ✅ reuse topic from config
+        this.keyExtractor = orderEventKeyExtractor;
+        this.sendSuccess = Timer.builder("order.kafka.send")
+                .tag("outcome", "success")
+                .description("Time from send() to broker acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.sendFailure = Timer.builder("order.kafka.send")
+                .tag("outcome", "failure")
+                .description("Time from send() to a failed delivery")
+                .register(registry);
+    }
+
+    // Asynchronous: the returned future completes once the broker acknowledged (or rejected) the event
+    @TrackExecution
+    public CompletableFuture<SendResult<String, OrderEvent>> sendOrderEvent(OrderEvent event) {
+        return send(event);
+    }
+
+    /**
+     * Publishes the whole batch without waiting in between, then waits (up to order.kafka.batch-timeout)
+     * for all acknowledgements. Returns one outcome per event, in request order.
+     * Aspects run once for the batch, not once per event.
+     */
+    @TrackExecution
+    public List<OrderEventResult> sendOrderEvents(List<OrderEvent> events) {
+        long deadline = System.nanoTime() + batchTimeout.toNanos();
+        List<CompletableFuture<SendResult<String, OrderEvent>>> futures = new ArrayList<>(events.size());
+        for (OrderEvent event : events) {
+            try {
+                futures.add(send(event));
+            } catch (RuntimeException e) {
+                // Thrown before the record is queued (serialization, key extraction, max.block.ms): FAILED, not a 500
+                log.error("❌ Could not send Order event {}: {}", event, e.getMessage());
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        try {
+            // Time spent blocked in send() above counts against the same batch-timeout
+            long remainingNanos = Math.max(0, deadline - System.nanoTime());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // per-event outcomes below
+        }
+
+        List<OrderEventResult> results = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            results.add(toResult(events.get(i), futures.get(i)));
+        }
+        return results;
+    }
+
+    private OrderEventResult toResult(OrderEvent event, CompletableFuture<SendResult<String, OrderEvent>> future) {
+        if (!future.isDone()) {
+            return new OrderEventResult(event.getOrderId(), OrderEventResult.Status.TIMED_OUT, null, null,
+                    "No acknowledgement within " + batchTimeout);
+        }
+        try {
+            RecordMetadata metadata = future.join().getRecordMetadata();
+            return new OrderEventResult(event.getOrderId(), OrderEventResult.Status.SENT,
+                    metadata.partition(), metadata.offset(), null);
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new OrderEventResult(event.getOrderId(), OrderEventResult.Status.FAILED, null, null,
+                    cause.getMessage());
+        }
     }
 
-   @TrackExecution
-    public void sendOrderEvent(OrderEvent event) {
-        kafkaTemplate.send(topicName, event); // ✅ no hardcoding
-        System.out.println("📤 Sent Order event to [" + topicName + "]: " + event);
+    private CompletableFuture<SendResult<String, OrderEvent>> send(OrderEvent event) {
+        long start = System.nanoTime();
+        // Keyed (by default on userId) so all events of one user land on one partition, in order
+        return kafkaTemplate.send(topicName, keyExtractor.apply(event), event) // ✅ no hardcoding
+                .whenComplete((result, ex) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (ex == null) {
+                        sendSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+                        log.debug("📤 Sent Order event to [{}-{}@{}]: {}", topicName,
+                                result.getRecordMetadata().partition(), result.getRecordMetadata().offset(), event);
+                    } else {
+                        sendFailure.record(elapsed, TimeUnit.NANOSECONDS);
+                        log.error("❌ Failed to send Order event to [{}]: {} → {}", topicName, event, ex.getMessage());
+                    }
+                });
     }
 }
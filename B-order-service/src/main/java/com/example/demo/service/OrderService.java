@@ -1,31 +1,27 @@
 package com.example.demo.service;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.Collections;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CachePut;
-import org.redisson.api.RLock;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import com.example.demo.dto.UserResponse;
+import com.example.demo.dto.OrderPage;
 import com.example.demo.model.Order;
 import com.example.demo.repository.OrderRepository;
-import com.example.demo.client.UserClient;
-
-import com.netflix.discovery.EurekaClient;
+import com.example.demo.client.UserExistenceCache;
+import com.example.demo.client.UserServiceAvailability;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 
-import com.netflix.appinfo.InstanceInfo;
-
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,26 +30,28 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
-    private final UserClient userClient;
-    private final EurekaClient eurekaClient; 
-    private final StringRedisTemplate redisTemplate; // ✅ used for distributed lock
+    private final UserExistenceCache userExistenceCache;
+    private final UserServiceAvailability userServiceAvailability;
+    private final OrderLockService orderLockService;
+    private final OrderCoalescer orderCoalescer;
+    private final EntityManager entityManager;
+
+    @Value("${order.lock.contention-mode:reject}")
+    private String contentionMode;
+
+    @Value("${order.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${order.page.max-limit:500}")
+    private int maxPageLimit;
 
-    @CircuitBreaker(name = "userService", fallbackMethod = "getAllUsersFallback")
+    @Value("${order.page.stream-chunk-size:500}")
+    private int streamChunkSize;
+
+    @CircuitBreaker(name = "userService", fallbackMethod = "createOrderFallback")
     @Retry(name = "userService")
     public Order createOrder(Order order) {
-        if (eurekaClient.getApplication("B-USER-SERVICE") == null) {
-            log.error("❌ B-USER-SERVICE not yet discovered in Eureka. Aborting Feign call.");
-            throw new IllegalStateException("User Service not available in Eureka");
-        } else {
-            List<InstanceInfo> instances = eurekaClient.getApplication("B-USER-SERVICE").getInstances();
-            log.info("✅ Found {} instance(s) of B-USER-SERVICE in Eureka: {}", instances.size(), instances);
-        }
-
-        List<UserResponse> users = userClient.getAllUsers();
-        if (users.isEmpty()) {
-            log.warn("⚠️ Feign call succeeded, but returned no users.");
-            throw new RuntimeException("No users available to assign order");
-        }
+        validateOrderingUser(order);
 
         Order savedOrder = orderRepository.save(order);
         log.info("✅ Order saved successfully with id={}", savedOrder.getId());
@@ -61,33 +59,83 @@ public class OrderService {
         return savedOrder;
     }
 
-    // 🔒 Improved distributed lock with UUID token + Lua release
+    // Targeted (near-cached) lookup of the ordering user instead of fetching the whole user table
+    private void validateOrderingUser(Order order) {
+        if (!userServiceAvailability.isAvailable()) {
+            log.error("❌ B-USER-SERVICE not yet discovered in Eureka. Aborting Feign call.");
+            throw new IllegalStateException("User Service not available in Eureka");
+        }
+        if (order.getUserId() == null) {
+            throw new UnknownUserException("Order has no userId");
+        }
+        if (!userExistenceCache.exists(order.getUserId())) {
+            log.warn("⚠️ User {} does not exist, rejecting order", order.getUserId());
+            throw new UnknownUserException("User not found: " + order.getUserId());
+        }
+    }
+
+    // 🔒 Distributed lock with per-owner token, released (compare-and-delete) once the order is saved.
+    // In "coalesce" mode contended orders are queued and saved in a batch by the lock holder instead of rejected.
     public Order createOrderWithLock(Order order) {
-    String lockKey = "order-lock:" + order.getProductName();
-    long lockTtlSeconds = 10L;
+        if ("coalesce".equalsIgnoreCase(contentionMode)) {
+            validateOrderingUser(order);
+            return orderCoalescer.submit(order);
+        }
 
-    // Try to acquire lock
-    Boolean acquired = redisTemplate.opsForValue()
-            .setIfAbsent(lockKey, "LOCKED", lockTtlSeconds, TimeUnit.SECONDS);
+        OrderLockService.LockHandle lock = orderLockService.tryAcquire(order.getProductName());
+        if (lock == null) {
+            log.warn("⚠️ Order for '{}' is already in progress", order.getProductName());
+            throw new DuplicateOrderException("Order for '" + order.getProductName() + "' is already in progress");
+        }
 
-    if (!Boolean.TRUE.equals(acquired)) {
-        log.warn("⚠️ Order for '{}' is already in progress", order.getProductName());
-        throw new DuplicateOrderException("Order for '" + order.getProductName() + "' is already in progress");
+        log.info("🔒 Lock acquired for {}", order.getProductName());
+        try {
+            return createOrder(order);
+        } finally {
+            lock.release();
+        }
     }
 
-    log.info("🔒 Lock acquired for {}", order.getProductName());
-
-    // Proceed immediately
-    return createOrder(order);
-
-    // No manual release — TTL will automatically remove the key after 10s
-}
+    /**
+     * Bulk creation: validates all ordering users with one batch lookup, then saves every order
+     * in one saveAll (one transaction). With the pooled id generator and hibernate.jdbc.batch_size
+     * the inserts go to the database as JDBC batches. Client-supplied ids are ignored: every
+     * order is inserted as new, never merged over an existing one.
+     */
+    public List<Order> createOrders(List<Order> orders) {
+        if (orders.isEmpty() || orders.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must contain 1.." + maxBatchSize + " orders");
+        }
+        orders.forEach(order -> order.setId(null));
+        if (!userServiceAvailability.isAvailable()) {
+            throw new IllegalStateException("User Service not available in Eureka");
+        }
 
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getUserId() == null) {
+                throw new UnknownUserException("Order has no userId");
+            }
+            userIds.add(order.getUserId());
+        }
+        Set<Long> unknown = userExistenceCache.findUnknown(userIds);
+        if (!unknown.isEmpty()) {
+            log.warn("⚠️ Rejecting batch: unknown users {}", unknown);
+            throw new UnknownUserException("Users not found: " + unknown);
+        }
 
+        List<Order> saved = orderRepository.saveAll(orders);
+        log.info("✅ Saved batch of {} orders", saved.size());
+        return saved;
+    }
 
+    // --- Not a user-service failure: let it reach the controller instead of the generic fallback
+    public Order createOrderFallback(Order order, UnknownUserException e) {
+        throw e;
+    }
 
     // --- CircuitBreaker fallback
-    public Order getAllUsersFallback(Order order, Throwable t) {
+    public Order createOrderFallback(Order order, Throwable t) {
         log.error("❌ Fallback triggered for createOrder due to: {}", t.getMessage());
         Order fallbackOrder = new Order();
         fallbackOrder.setId(-1L);
@@ -98,7 +146,8 @@ public class OrderService {
     }
 
     // ✅ Cache directly the entity, not Optional<Order>
-    @Cacheable(value = "orders", key = "#id")
+    // sync → one DB load per id at a time (single-flight in TwoTierCache); a missing order is not cached
+    @Cacheable(value = "orders", key = "#id", sync = true)
     public Order getOrderById(Long id) {
         log.info("DB 🔍 fetching order id={}", id);
         return orderRepository.findById(id).orElse(null);
@@ -120,4 +169,30 @@ public class OrderService {
         log.info("DB 🔍 fetching all orders");
         return orderRepository.findAll();
     }
+
+    // Keyset page of orders with id > afterId; limit is clamped to order.page.max-limit
+    public OrderPage getOrdersPage(long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageLimit));
+        List<Order> items = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(size));
+        Long nextCursor = items.size() < size ? null : items.get(items.size() - 1).getId();
+        return new OrderPage(items, nextCursor);
+    }
+
+    /**
+     * Hands every order to the sink in id order, reading one keyset chunk at a time.
+     * The persistence context is cleared after each chunk, so memory stays bounded by the
+     * chunk size no matter how large the table is.
+     */
+    public void forEachOrder(Consumer<Order> sink) {
+        long afterId = 0;
+        while (true) {
+            List<Order> chunk = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(streamChunkSize));
+            chunk.forEach(sink);
+            if (chunk.size() < streamChunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            entityManager.clear();
+        }
+    }
 }
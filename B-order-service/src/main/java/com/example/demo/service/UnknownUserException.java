@@ -0,0 +1,7 @@
+package com.example.demo.service;
+
+public class UnknownUserException extends RuntimeException {
+    public UnknownUserException(String message) {
+        super(message);
+    }
+}
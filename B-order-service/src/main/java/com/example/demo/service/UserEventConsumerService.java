@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import com.example.demo.client.UserExistenceCache;
+import com.example.demo.dto.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+// Keeps the user near-cache in step with user-service
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserEventConsumerService {
+
+    private final UserExistenceCache userExistenceCache;
+
+    @KafkaListener(
+            topics = "users-topic",
+            containerFactory = "userEventListenerContainerFactory"
+    )
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("📥 User {} {}", event.getUserId(), event.getType());
+        if (event.getUserId() != null) {
+            userExistenceCache.invalidate(event.getUserId());
+        }
+    }
+}
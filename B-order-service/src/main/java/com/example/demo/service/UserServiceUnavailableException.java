@@ -0,0 +1,8 @@
+package com.example.demo.service;
+
+// user-service could not answer; unlike UnknownUserException this says nothing about the user
+public class UserServiceUnavailableException extends RuntimeException {
+    public UserServiceUnavailableException(String message) {
+        super(message);
+    }
+}
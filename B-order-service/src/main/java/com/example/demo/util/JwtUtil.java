@@ -1,7 +1,12 @@
 package com.example.demo.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -21,9 +26,15 @@ public class JwtUtil {
 
     private PublicKey publicKey;
 
+    // Built once; JJWT parsers are immutable and thread-safe
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.publicKey = loadPublicKey(publicKeyPem);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(publicKey)
+                .build();
         log.info("✅ Public key loaded. Algorithm: {}, Format: {}",
                  publicKey.getAlgorithm(), publicKey.getFormat());
     }
@@ -45,11 +56,7 @@ public class JwtUtil {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(publicKey)   // ✅ now correct type
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
@@ -60,17 +67,40 @@ public class JwtUtil {
         return (String) extractAllClaims(token).get("role");
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims,
+     * or the failure reason. Does not throw for invalid tokens.
+     */
+    public VerifiedClaims verify(String token) {
+        if (token == null || token.isBlank()) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.MISSING, "Token is empty");
+        }
         try {
-            extractAllClaims(token);
-            return true;
-        } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            log.warn("❌ Token expired: {}", e.getMessage());
-        } catch (io.jsonwebtoken.SignatureException e) {
-            log.error("❌ Invalid JWT signature: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("❌ Invalid JWT: {}", e.getMessage());
+            return VerifiedClaims.valid(parser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.EXPIRED, e.getMessage());
+        } catch (SignatureException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.BAD_SIGNATURE, e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.UNSUPPORTED, e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            return VerifiedClaims.failed(VerifiedClaims.Failure.MALFORMED, e.getMessage());
+        }
+    }
+
+    public boolean validateToken(String token) {
+        VerifiedClaims result = verify(token);
+        if (!result.isValid()) {
+            logFailure(result);
+        }
+        return result.isValid();
+    }
+
+    public void logFailure(VerifiedClaims result) {
+        switch (result.getFailure()) {
+            case EXPIRED -> log.warn("❌ Token expired: {}", result.getMessage());
+            case BAD_SIGNATURE -> log.error("❌ Invalid JWT signature: {}", result.getMessage());
+            default -> log.error("❌ Invalid JWT: {}", result.getMessage());
         }
-        return false;
     }
 }
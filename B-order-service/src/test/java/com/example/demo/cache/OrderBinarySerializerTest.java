@@ -0,0 +1,86 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.model.Order;
+
+class OrderBinarySerializerTest {
+
+    private final OrderBinarySerializer serializer = new OrderBinarySerializer();
+
+    private static Order fullOrder() {
+        return new Order(42L, -7L, "Café ☕ latte", 3, 4.5, LocalDateTime.of(2024, 2, 29, 13, 45, 10, 123_456_789));
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        Order order = fullOrder();
+
+        assertEquals(order, serializer.deserialize(serializer.serialize(order)));
+    }
+
+    @Test
+    void roundTripsMissingFieldsAsNull() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setPrice(0.0);
+
+        Order read = serializer.deserialize(serializer.serialize(order));
+
+        assertEquals(order, read);
+        assertNull(read.getProductName());
+        assertNull(read.getOrderDate());
+    }
+
+    @Test
+    void roundTripsExtremeValues() {
+        Order order = new Order(Long.MAX_VALUE, Long.MIN_VALUE, "", Integer.MIN_VALUE, -0.0, LocalDateTime.of(1969, 12, 31, 23, 59, 59));
+
+        assertEquals(order, serializer.deserialize(serializer.serialize(order)));
+    }
+
+    @Test
+    void nullAndEmptyReadAsMiss() {
+        assertNull(serializer.serialize(null));
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void unknownVersionReadsAsMiss() {
+        byte[] bytes = serializer.serialize(fullOrder());
+        bytes[0] = (byte) (OrderBinarySerializer.VERSION + 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void jsonEntryReadsAsMiss() {
+        assertNull(serializer.deserialize("{\"id\":42}".getBytes()));
+    }
+
+    @Test
+    void truncatedEntryReadsAsMiss() {
+        byte[] bytes = serializer.serialize(fullOrder());
+
+        for (int length = 1; length < bytes.length; length++) {
+            assertNull(serializer.deserialize(Arrays.copyOf(bytes, length)), "truncated to " + length);
+        }
+    }
+
+    @Test
+    void corruptStringLengthReadsAsMiss() {
+        Order order = new Order();
+        order.setProductName("widget");
+        byte[] bytes = serializer.serialize(order);
+        bytes[2] = 0x7E; // zigzag length 63, past the end of the entry
+
+        assertNull(serializer.deserialize(bytes));
+    }
+}
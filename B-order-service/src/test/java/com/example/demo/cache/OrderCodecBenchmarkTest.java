@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import com.example.demo.model.Order;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Size and encode/decode time of a cached order with the "orders" cache's two codecs: the JSON
+ * serializer RedisConfig uses by default and OrderBinarySerializer (cache.codec=binary).
+ * Numbers are logged for comparison; only the round trip is asserted.
+ */
+@Slf4j
+class OrderCodecBenchmarkTest {
+
+    private static final int WARMUP = 100_000;
+    private static final int ITERATIONS = 500_000;
+
+    private static final Order ORDER = new Order(1_048_576L, 4_711L, "Espresso machine, stainless steel", 2, 249.99,
+            LocalDateTime.of(2024, 11, 5, 9, 30, 12, 345_000_000));
+
+    @Test
+    void jsonVersusBinary() {
+        RedisSerializer<Order> json = jsonSerializer();
+        RedisSerializer<Order> binary = new OrderBinarySerializer();
+
+        run("JSON", json, WARMUP);
+        run("binary", binary, WARMUP);
+
+        log.info("📊 {}", run("JSON", json, ITERATIONS));
+        log.info("📊 {}", run("binary", binary, ITERATIONS));
+    }
+
+    private static String run(String label, RedisSerializer<Order> serializer, int iterations) {
+        byte[] bytes = serializer.serialize(ORDER);
+        assertEquals(ORDER, serializer.deserialize(bytes));
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += serializer.serialize(ORDER).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += serializer.deserialize(bytes).getQuantity();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        assertEquals((long) iterations * (bytes.length + ORDER.getQuantity()), checksum);
+        return String.format("%s: %d bytes, encode %.0f ns, decode %.0f ns", label, bytes.length,
+                (double) encodeNanos / iterations, (double) decodeNanos / iterations);
+    }
+
+    // As RedisConfig configures it for cache.codec=json
+    private static RedisSerializer<Order> jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return new Jackson2JsonRedisSerializer<>(mapper, Order.class);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.example.demo.model.Order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoTierCacheTest {
+
+    private final AtomicReference<Runnable> duringRemoteRead = new AtomicReference<>();
+
+    // L2 that can run a hook in the middle of a read, after the old value has been fetched
+    private final ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager() {
+        @Override
+        protected Cache createConcurrentMapCache(String name) {
+            return new ConcurrentMapCache(name, false) {
+                @Override
+                public ValueWrapper get(Object key) {
+                    ValueWrapper wrapper = super.get(key);
+                    Runnable hook = duringRemoteRead.getAndSet(null);
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return wrapper;
+                }
+            };
+        }
+    };
+
+    private final TwoTierCacheManager manager = new TwoTierCacheManager(remoteManager,
+            mock(StringRedisTemplate.class), new SimpleMeterRegistry(), "test-invalidation", 30_000, 100, 0);
+    private final Cache cache = manager.getCache("orders");
+
+    @Test
+    void readsThroughToL2AndServesFromL1() {
+        remoteManager.getCache("orders").put(1L, "v1");
+
+        assertEquals("v1", cache.get(1L).get());
+        remoteManager.getCache("orders").put(1L, "changed behind our back");
+        assertEquals("v1", cache.get(1L).get());
+    }
+
+    @Test
+    void readerRacingALocalPutDoesNotPromoteTheOldValue() {
+        remoteManager.getCache("orders").put(1L, "old");
+        duringRemoteRead.set(() -> cache.put(1L, "new"));
+
+        cache.get(1L); // may see "old", but must not keep it in L1
+
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    @Test
+    void readerRacingARemoteInvalidationDoesNotPromoteTheOldValue() {
+        remoteManager.getCache("orders").put(1L, "old");
+        duringRemoteRead.set(() -> {
+            remoteManager.getCache("orders").put(1L, "new");
+            ((TwoTierCache) cache).evictLocal("1");
+        });
+
+        cache.get(1L);
+
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    @Test
+    void loaderRacingAnEvictionDoesNotPromoteItsResult() {
+        Object loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "loaded before the evict";
+        });
+        remoteManager.getCache("orders").put(1L, "new");
+
+        assertEquals("loaded before the evict", loaded);
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    // Two order-service instances sharing one binary-encoded "orders" L2, with published
+    // invalidations relayed to every other instance as the Redis channel would
+    @Test
+    void orderUpdateOnOneInstanceReachesTheOtherThroughBinaryL2AndChannel() {
+        ConcurrentMapCacheManager binaryRemote = binaryOrdersRemote();
+        List<TwoTierCacheManager> instances = new ArrayList<>();
+        StringRedisTemplate channel = mock(StringRedisTemplate.class);
+        doAnswer(inv -> {
+            DefaultMessage message = new DefaultMessage(inv.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8),
+                    inv.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8));
+            instances.forEach(instance -> instance.onMessage(message, null));
+            return null;
+        }).when(channel).convertAndSend(anyString(), anyString());
+        instances.add(new TwoTierCacheManager(binaryRemote, channel, new SimpleMeterRegistry(), "orders-invalidation", 30_000, 100, 0));
+        instances.add(new TwoTierCacheManager(binaryRemote, channel, new SimpleMeterRegistry(), "orders-invalidation", 30_000, 100, 0));
+        Cache writer = instances.get(0).getCache("orders");
+        Cache reader = instances.get(1).getCache("orders");
+
+        Order order = new Order(42L, 7L, "Café ☕ latte", 2, 4.5, LocalDateTime.of(2024, 2, 29, 13, 45, 10, 123_456_789));
+        writer.put(42L, order); // @CachePut on save
+        Object stored = ((Map<?, ?>) binaryRemote.getCache("orders").getNativeCache()).get(42L);
+        assertInstanceOf(byte[].class, stored, "L2 holds the binary encoding");
+        assertEquals(order, reader.get(42L).get());
+
+        Order repriced = new Order(42L, 7L, "Café ☕ latte", 2, 5.0, order.getOrderDate());
+        writer.put(42L, repriced);
+        assertEquals(repriced, reader.get(42L).get(), "stale L1 copy evicted by the invalidation");
+
+        writer.evict(42L); // @CacheEvict on delete
+        assertNull(reader.get(42L));
+    }
+
+    // "orders" L2 that stores what OrderBinarySerializer writes to Redis under cache.codec=binary
+    private static ConcurrentMapCacheManager binaryOrdersRemote() {
+        OrderBinarySerializer serializer = new OrderBinarySerializer();
+        return new ConcurrentMapCacheManager("orders") {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name, false) {
+                    @Override
+                    protected Object toStoreValue(Object userValue) {
+                        return serializer.serialize((Order) userValue);
+                    }
+
+                    @Override
+                    protected Object fromStoreValue(Object storeValue) {
+                        return serializer.deserialize((byte[]) storeValue);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.client;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.service.UserServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserExistenceCacheTest {
+
+    private final UserClient userClient = mock(UserClient.class);
+    private final UserExistenceCache cache = new UserExistenceCache(userClient,
+            Duration.ofSeconds(60), Duration.ofSeconds(5), 100, new SimpleMeterRegistry());
+
+    @Test
+    void cachesAnswerUntilInvalidated() {
+        when(userClient.userExists(1L)).thenReturn(true, false);
+
+        assertTrue(cache.exists(1L));
+        assertTrue(cache.exists(1L));
+        verify(userClient, times(1)).userExists(1L);
+
+        cache.invalidate(1L);
+
+        assertFalse(cache.exists(1L));
+        verify(userClient, times(2)).userExists(1L);
+    }
+
+    @Test
+    void lookupRacingAnInvalidationIsNotCached() {
+        // The user is deleted (and the event handled) while the first lookup is still in flight
+        when(userClient.userExists(1L)).thenAnswer(inv -> {
+            cache.invalidate(1L);
+            return true;
+        }).thenReturn(false);
+
+        assertTrue(cache.exists(1L));
+
+        assertFalse(cache.exists(1L));
+        verify(userClient, times(2)).userExists(1L);
+    }
+
+    @Test
+    void outageIsNotCachedAsUnknownUser() {
+        UserClient.UserClientFallback fallback = new UserClient.UserClientFallback();
+        when(userClient.userExists(1L)).thenAnswer(inv -> fallback.userExists(1L)).thenReturn(true);
+
+        assertThrows(UserServiceUnavailableException.class, () -> cache.exists(1L));
+
+        assertTrue(cache.exists(1L));
+        verify(userClient, times(2)).userExists(1L);
+    }
+}
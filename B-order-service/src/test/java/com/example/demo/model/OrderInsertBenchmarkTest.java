@@ -0,0 +1,149 @@
+package com.example.demo.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts orders through Hibernate into H2, reached over its TCP server so every statement is a
+ * real round trip, with the settings of application.yml (batch_size 50, order_inserts):
+ * <ul>
+ *   <li>baseline — the same columns with an IDENTITY id, which makes Hibernate insert row by row</li>
+ *   <li>pooled — {@link Order} itself: orders_seq with allocation size 50 and JDBC batching</li>
+ * </ul>
+ * Times are logged for comparison; only the row counts are asserted.
+ */
+@Slf4j
+class OrderInsertBenchmarkTest {
+
+    private static final int BATCH = 500;
+    private static final int ROUNDS = 20;
+
+    private Server server;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:orders-bench;DB_CLOSE_DELAY=-1", "sa", "");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(Order.class.getName(), IdentityOrder.class.getName()));
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", 50,
+                "hibernate.order_inserts", true,
+                "hibernate.order_updates", true));
+        factoryBean.afterPropertiesSet();
+        emf = factoryBean.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+        server.stop();
+    }
+
+    @Test
+    void pooledSequenceWithBatchingVersusIdentity() {
+        // warm-up: connections, statement caches, JIT
+        insert(OrderInsertBenchmarkTest::identityOrder, 1);
+        insert(OrderInsertBenchmarkTest::order, 1);
+
+        long identityNanos = insert(OrderInsertBenchmarkTest::identityOrder, ROUNDS);
+        long pooledNanos = insert(OrderInsertBenchmarkTest::order, ROUNDS);
+
+        assertEquals((ROUNDS + 1L) * BATCH, count(IdentityOrder.class));
+        assertEquals((ROUNDS + 1L) * BATCH, count(Order.class));
+        log.info("📊 IDENTITY, row by row: {} orders in {} ms → {} orders/s", ROUNDS * BATCH,
+                TimeUnit.NANOSECONDS.toMillis(identityNanos), Math.round(ROUNDS * BATCH / (identityNanos / 1e9)));
+        log.info("📊 pooled orders_seq + JDBC batches of 50: {} orders in {} ms → {} orders/s", ROUNDS * BATCH,
+                TimeUnit.NANOSECONDS.toMillis(pooledNanos), Math.round(ROUNDS * BATCH / (pooledNanos / 1e9)));
+    }
+
+    // One transaction per batch of orders, as OrderService.createOrders does
+    private long insert(IntFunction<Object> entity, int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                for (int i = 0; i < BATCH; i++) {
+                    em.persist(entity.apply(i));
+                }
+                em.getTransaction().commit();
+            } finally {
+                em.close();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long count(Class<?> type) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select count(o) from " + type.getSimpleName() + " o", Long.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Order order(int i) {
+        return new Order(null, (long) (i % 50), "product-" + (i % 10), 1 + i % 5, 9.99, LocalDateTime.now());
+    }
+
+    private static IdentityOrder identityOrder(int i) {
+        IdentityOrder order = new IdentityOrder();
+        order.setUserId((long) (i % 50));
+        order.setProductName("product-" + (i % 10));
+        order.setQuantity(1 + i % 5);
+        order.setPrice(9.99);
+        order.setOrderDate(LocalDateTime.now());
+        return order;
+    }
+
+    // Order as it was mapped before the pooled sequence
+    @Entity(name = "IdentityOrder")
+    @Data
+    @NoArgsConstructor
+    @Table(name = "orders_identity")
+    static class IdentityOrder {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private Long userId;
+        private String productName;
+        private Integer quantity;
+        private Double price;
+
+        private LocalDateTime orderDate;
+    }
+}
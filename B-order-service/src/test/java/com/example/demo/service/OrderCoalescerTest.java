@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.OrderRepository;
+
+class OrderCoalescerTest {
+
+    private static final int MAX_BATCH = 3;
+
+    private final OrderRepository repository = mock(OrderRepository.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final OrderCoalescer coalescer;
+
+    @SuppressWarnings("unchecked")
+    OrderCoalescerTest() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(ops);
+        when(ops.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        OrderLockService locks = new OrderLockService(redis, Duration.ofSeconds(10), false, Duration.ofSeconds(5));
+
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Order> orders = inv.getArgument(0);
+            batchSizes.add(orders.size());
+            Thread.sleep(5); // let other callers queue up behind the holder
+            return new ArrayList<>(orders);
+        });
+        coalescer = new OrderCoalescer(locks, repository, Duration.ofSeconds(10), Duration.ofMillis(1), MAX_BATCH);
+    }
+
+    private static Order order(int i) {
+        Order order = new Order();
+        order.setProductName("widget");
+        order.setQuantity(i);
+        return order;
+    }
+
+    @Test
+    void savesSingleOrder() {
+        Order saved = coalescer.submit(order(1));
+
+        assertEquals(1, saved.getQuantity());
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void contendedOrdersAreAllSavedInBoundedBatches() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Order>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int quantity = i;
+                results.add(pool.submit(() -> coalescer.submit(order(quantity))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Order saved = results.get(i).get(10, TimeUnit.SECONDS);
+                assertNotNull(saved);
+                assertEquals(i, saved.getQuantity());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(40, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= MAX_BATCH), "batches " + batchSizes);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Same-product order throughput with 1, 4 and 16 contending threads, against an in-memory
+ * stand-in for Redis that costs one simulated round trip per command:
+ * <ul>
+ *   <li>remote only — every contender goes to Redis with SET NX and gets a 409 when it loses
+ *       (the lock as it was before the per-product local lock)</li>
+ *   <li>local + remote — OrderLockService: contenders queue on the product's local lock and
+ *       only the head of the queue talks to Redis</li>
+ * </ul>
+ * Accepted and rejected orders per second and Redis commands per accepted order are logged for
+ * comparison; only the lock's mutual exclusion is asserted.
+ */
+@Slf4j
+class OrderLockServiceBenchmarkTest {
+
+    private static final long REDIS_RTT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long ORDER_WORK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Duration RUN = Duration.ofSeconds(1);
+    private static final RedisScript<Long> RELEASE = RedisScript.of("compare-and-delete", Long.class);
+
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private final AtomicLong redisCommands = new AtomicLong();
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> ops = mock(ValueOperations.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final OrderLockService locks;
+
+    OrderLockServiceBenchmarkTest() {
+        when(redis.opsForValue()).thenReturn(ops);
+        when(ops.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(inv -> setIfAbsent(inv.getArgument(0), inv.getArgument(1)));
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(inv -> compareAndDelete(inv.<List<String>>getArgument(1).get(0), inv.getArgument(2)));
+        locks = new OrderLockService(redis, Duration.ofSeconds(10), false, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void sameProductThroughputUnderContention() throws Exception {
+        run("warm-up", 4, this::remoteOnly);
+        run("warm-up", 4, this::localThenRemote);
+
+        for (int threads : new int[] {1, 4, 16}) {
+            run("remote only", threads, this::remoteOnly);
+            run("local + remote", threads, this::localThenRemote);
+        }
+    }
+
+    private void run(String label, int threads, LockedOrder order) throws InterruptedException {
+        keys.clear();
+        redisCommands.set(0);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + RUN.toNanos() + TimeUnit.MILLISECONDS.toNanos(50);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                while (System.nanoTime() < deadline) {
+                    boolean placed = order.place("product-1", () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        LockSupport.parkNanos(ORDER_WORK_NANOS);
+                        inside.decrementAndGet();
+                    });
+                    (placed ? accepted : rejected).incrementAndGet();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        assertEquals(1, maxInside.get(), "one order per product at a time");
+        assertTrue(accepted.get() > 0, "some orders placed");
+        if (!label.equals("warm-up")) {
+            log.info("📊 {} with {} thread(s): {} accepted/s, {} rejected (409)/s, {} Redis commands per accepted order",
+                    label, threads, Math.round(accepted.get() / seconds), Math.round(rejected.get() / seconds),
+                    String.format("%.1f", (double) redisCommands.get() / accepted.get()));
+        }
+    }
+
+    // SET NX straight away, 409 on contention, compare-and-delete afterwards; through the same
+    // template as OrderLockService, so both variants pay the same per-command overhead
+    private boolean remoteOnly(String product, Runnable work) {
+        String key = "order-lock:" + product;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, token, 10, TimeUnit.SECONDS))) {
+            return false;
+        }
+        try {
+            work.run();
+        } finally {
+            redis.execute(RELEASE, List.of(key), token);
+        }
+        return true;
+    }
+
+    private boolean localThenRemote(String product, Runnable work) {
+        OrderLockService.LockHandle lock = locks.tryAcquire(product);
+        if (lock == null) {
+            return false;
+        }
+        try {
+            work.run();
+        } finally {
+            lock.release();
+        }
+        return true;
+    }
+
+    private boolean setIfAbsent(String key, String token) {
+        roundTrip();
+        return keys.putIfAbsent(key, token) == null;
+    }
+
+    private long compareAndDelete(String key, Object token) {
+        roundTrip();
+        return keys.remove(key, token) ? 1L : 0L;
+    }
+
+    private void roundTrip() {
+        redisCommands.incrementAndGet();
+        LockSupport.parkNanos(REDIS_RTT_NANOS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface LockedOrder {
+        boolean place(String product, Runnable work);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class OrderLockServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> ops = mock(ValueOperations.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final OrderLockService locks;
+
+    OrderLockServiceTest() {
+        when(redis.opsForValue()).thenReturn(ops);
+        when(ops.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        locks = new OrderLockService(redis, Duration.ofSeconds(10), false, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void unrelatedProductIsNotBlockedByHeldLock() throws Exception {
+        OrderLockService.LockHandle a = locks.tryAcquire("product-a");
+        assertNotNull(a);
+
+        // Other threads: same product is busy locally, any other product goes straight through
+        assertNull(CompletableFuture.supplyAsync(() -> locks.tryAcquireNow("product-a")).get(1, TimeUnit.SECONDS));
+        OrderLockService.LockHandle b = CompletableFuture.supplyAsync(() -> locks.tryAcquireNow("product-b"))
+                .get(1, TimeUnit.SECONDS);
+        assertNotNull(b);
+    }
+
+    @Test
+    void localLockIsFreeAgainAfterRelease() throws Exception {
+        locks.tryAcquire("product-a").release();
+
+        assertNotNull(CompletableFuture.supplyAsync(() -> locks.tryAcquireNow("product-a")).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void remoteContentionReturnsNull() {
+        when(ops.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+
+        assertNull(locks.tryAcquire("product-a"));
+        // the local lock was handed back, so a second attempt still reaches Redis instead of timing out locally
+        assertNull(locks.tryAcquireNow("product-a"));
+    }
+}
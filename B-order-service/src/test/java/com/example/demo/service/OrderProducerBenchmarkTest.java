@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.config.KafkaProducerConfig;
+import com.example.demo.dto.OrderEvent;
+import com.example.demo.dto.OrderEventResult;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throughput of OrderProducerService.sendOrderEvents against an embedded broker, with the
+ * producer settings of KafkaProducerConfig: the tuned defaults versus linger 0 / 16 KB / no
+ * compression. Numbers are logged for comparison; only delivery and per-user order are asserted,
+ * since timings on a shared build machine are too noisy to gate on.
+ */
+@Slf4j
+@EmbeddedKafka(partitions = 3, topics = {OrderProducerBenchmarkTest.BASELINE_TOPIC, OrderProducerBenchmarkTest.TUNED_TOPIC})
+class OrderProducerBenchmarkTest {
+
+    static final String BASELINE_TOPIC = "orders-bench-baseline";
+    static final String TUNED_TOPIC = "orders-bench-tuned";
+
+    private static final int EVENTS = 20_000;
+    private static final int BATCH = 500;
+    private static final int USERS = 50;
+
+    @Test
+    void baselineProducer(EmbeddedKafkaBroker broker) {
+        run(broker, BASELINE_TOPIC, 0, 16_384, "none");
+    }
+
+    @Test
+    void tunedProducer(EmbeddedKafkaBroker broker) {
+        run(broker, TUNED_TOPIC, 10, 65_536, "lz4");
+    }
+
+    private void run(EmbeddedKafkaBroker broker, String topic, int lingerMs, int batchSize, String compression) {
+        KafkaProducerConfig config = new KafkaProducerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(config, "lingerMs", lingerMs);
+        ReflectionTestUtils.setField(config, "batchSize", batchSize);
+        ReflectionTestUtils.setField(config, "compression", compression);
+        ReflectionTestUtils.setField(config, "idempotence", true);
+        ReflectionTestUtils.setField(config, "deliveryTimeoutMs", 30_000);
+        ReflectionTestUtils.setField(config, "requestTimeoutMs", 15_000);
+        ReflectionTestUtils.setField(config, "keyField", "userId");
+
+        ProducerFactory<String, OrderEvent> producerFactory = config.orderEventProducerFactory();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderProducerService producer = new OrderProducerService(new KafkaTemplate<>(producerFactory),
+                TopicBuilder.name(topic).build(), config.orderEventKeyExtractor(), registry);
+        ReflectionTestUtils.setField(producer, "batchTimeout", Duration.ofSeconds(30));
+
+        try {
+            producer.sendOrderEvents(events(0, BATCH)); // warm-up: metadata, connections, JIT
+
+            Map<String, Long> lastOffset = new HashMap<>();
+            long start = System.nanoTime();
+            for (int from = BATCH; from < BATCH + EVENTS; from += BATCH) {
+                List<OrderEvent> batch = events(from, BATCH);
+                List<OrderEventResult> results = producer.sendOrderEvents(batch);
+                for (int i = 0; i < results.size(); i++) {
+                    OrderEventResult result = results.get(i);
+                    assertEquals(OrderEventResult.Status.SENT, result.getStatus(), result.getError());
+                    // Same user → same partition, offsets increasing in send order
+                    String userPartition = batch.get(i).getUserId() + "@" + result.getPartition();
+                    Long previous = lastOffset.put(userPartition, result.getOffset());
+                    assertTrue(previous == null || previous < result.getOffset(), "order kept for " + userPartition);
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            assertEquals(USERS, lastOffset.size(), "each user stays on one partition");
+            Timer acks = registry.get("order.kafka.send").tag("outcome", "success").timer();
+            log.info("📊 linger={}ms batch={}B compression={}: {} events in {} ms → {} events/s, mean ack {} ms, max ack {} ms",
+                    lingerMs, batchSize, compression, EVENTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    Math.round(EVENTS / (elapsedNanos / 1e9)),
+                    Math.round(acks.mean(TimeUnit.MILLISECONDS)), Math.round(acks.max(TimeUnit.MILLISECONDS)));
+        } finally {
+            if (producerFactory instanceof DefaultKafkaProducerFactory<String, OrderEvent> factory) {
+                factory.destroy();
+            }
+        }
+    }
+
+    private static List<OrderEvent> events(int from, int count) {
+        List<OrderEvent> events = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            events.add(new OrderEvent("O" + i, "user-" + (i % USERS), 10.0 + i % 100, null));
+        }
+        return events;
+    }
+}
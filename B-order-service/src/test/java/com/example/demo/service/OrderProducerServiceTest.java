@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.OrderEvent;
+import com.example.demo.dto.OrderEventResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderProducerServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, OrderEvent> template = mock(KafkaTemplate.class);
+    private final OrderProducerService producer = new OrderProducerService(template,
+            TopicBuilder.name("orders-topic").build(), OrderEvent::getUserId, new SimpleMeterRegistry());
+
+    private static OrderEvent event(String orderId, String userId) {
+        return new OrderEvent(orderId, userId, 1.0, null);
+    }
+
+    private static CompletableFuture<SendResult<String, OrderEvent>> acked(OrderEvent event, long offset) {
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("orders-topic", 0), offset, 0, 0L, 0, 0);
+        return CompletableFuture.completedFuture(
+                new SendResult<>(new ProducerRecord<>("orders-topic", event.getUserId(), event), metadata));
+    }
+
+    @Test
+    void synchronousSendFailureFailsOnlyThatEvent() {
+        ReflectionTestUtils.setField(producer, "batchTimeout", Duration.ofSeconds(5));
+        OrderEvent first = event("O1", "u1");
+        OrderEvent broken = event("O2", "u2");
+        OrderEvent last = event("O3", "u3");
+        when(template.send(eq("orders-topic"), eq("u1"), any())).thenReturn(acked(first, 0));
+        when(template.send(eq("orders-topic"), eq("u2"), any())).thenThrow(new TimeoutException("max.block.ms"));
+        when(template.send(eq("orders-topic"), eq("u3"), any())).thenReturn(acked(last, 1));
+
+        List<OrderEventResult> results = producer.sendOrderEvents(List.of(first, broken, last));
+
+        assertEquals(OrderEventResult.Status.SENT, results.get(0).getStatus());
+        assertEquals(OrderEventResult.Status.FAILED, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().contains("max.block.ms"));
+        assertEquals(OrderEventResult.Status.SENT, results.get(2).getStatus());
+    }
+
+    @Test
+    void timeBlockedInSendCountsAgainstBatchTimeout() {
+        ReflectionTestUtils.setField(producer, "batchTimeout", Duration.ofMillis(200));
+        OrderEvent slow = event("O1", "u1");
+        OrderEvent pending = event("O2", "u2");
+        when(template.send(eq("orders-topic"), eq("u1"), any())).thenAnswer(inv -> {
+            Thread.sleep(300); // blocked on metadata / a full buffer
+            return acked(slow, 0);
+        });
+        when(template.send(eq("orders-topic"), eq("u2"), any())).thenReturn(new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        List<OrderEventResult> results = producer.sendOrderEvents(List.of(slow, pending));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(OrderEventResult.Status.SENT, results.get(0).getStatus());
+        assertEquals(OrderEventResult.Status.TIMED_OUT, results.get(1).getStatus());
+        assertTrue(elapsedMillis < 450, "no fresh timeout after the blocked send: " + elapsedMillis + " ms");
+    }
+}
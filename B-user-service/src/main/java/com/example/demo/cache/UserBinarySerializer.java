@@ -0,0 +1,58 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.example.demo.model.User;
+
+/**
+ * Compact cache codec for User (cache.codec=binary).
+ * Layout v1: version, presence bitmask, then id (varint), name and email (UTF-8) if present.
+ * New fields go into a new version; unknown versions and corrupt entries read as a miss.
+ */
+public class UserBinarySerializer implements RedisSerializer<User> {
+
+    static final int VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+
+    @Override
+    public byte[] serialize(User user) throws SerializationException {
+        if (user == null) {
+            return null;
+        }
+        int present = (user.getId() != null ? ID : 0)
+                | (user.getName() != null ? NAME : 0)
+                | (user.getEmail() != null ? EMAIL : 0);
+
+        CompactBinary.Writer out = new CompactBinary.Writer()
+                .writeByte(VERSION)
+                .writeByte(present);
+        if ((present & ID) != 0) out.writeVarLong(user.getId());
+        if ((present & NAME) != 0) out.writeString(user.getName());
+        if ((present & EMAIL) != 0) out.writeString(user.getEmail());
+        return out.toByteArray();
+    }
+
+    @Override
+    public User deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || (bytes[0] & 0xFF) != VERSION) {
+            return null;
+        }
+        try {
+            CompactBinary.Reader in = new CompactBinary.Reader(bytes);
+            in.readByte();
+            int present = in.readByte();
+
+            User user = new User();
+            if ((present & ID) != 0) user.setId(in.readVarLong());
+            if ((present & NAME) != 0) user.setName(in.readString());
+            if ((present & EMAIL) != 0) user.setEmail(in.readString());
+            return user;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
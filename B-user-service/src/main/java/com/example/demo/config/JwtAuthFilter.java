@@ -1,6 +1,5 @@
 package com.example.demo.config;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -11,6 +10,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.demo.util.JwtUtil;
+import com.example.demo.util.VerifiedClaims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -39,10 +39,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             log.info("🔑 JWT token received");
 
             try {
-                if (jwtUtil.validateToken(token)) {
-                    Claims claims = jwtUtil.extractAllClaims(token);
-                    String username = claims.getSubject();
-                    String role = claims.get("role", String.class);
+                VerifiedClaims verified = jwtUtil.verify(token);
+                if (verified.isValid()) {
+                    String username = verified.getSubject();
+                    String role = verified.getRole();
                     String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
 
                     UsernamePasswordAuthenticationToken auth =
@@ -60,6 +60,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                     log.info("✅ JWT validated. User: {}, Role: {}", username, authority);
                 } else {
+                    jwtUtil.logFailure(verified);
                     log.error("❌ JWT validation failed");
                 }
             } catch (Exception e) {
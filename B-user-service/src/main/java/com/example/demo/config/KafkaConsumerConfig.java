@@ -1,6 +1,7 @@
 package com.example.demo.config;
 
 import com.example.demo.dto.OrderEvent;
+import com.example.demo.dto.UserChangedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
@@ -15,6 +16,7 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -31,6 +33,20 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // One consumer thread per partition by default; threads beyond the partition count stay idle
+    @Value("${orders.consumer.concurrency:${orders.kafka.partitions:3}}")
+    private int concurrency;
+
+    @Value("${orders.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // Broker waits for fetch-min-bytes (or fetch-max-wait-ms) before answering a fetch → fuller batches
+    @Value("${orders.consumer.fetch-min-bytes:16384}")
+    private int fetchMinBytes;
+
+    @Value("${orders.consumer.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
     // ✅ ConsumerFactory for deserializing OrderEvent from Kafka
     @Bean
     public ConsumerFactory<String, OrderEvent> consumerFactory() {
@@ -40,6 +56,9 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
         return new DefaultKafkaConsumerFactory<>(
                 props,
                 new StringDeserializer(),
@@ -59,6 +78,16 @@ public class KafkaConsumerConfig {
         return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
     }
 
+    // ✅ KafkaTemplate for user lifecycle events (users-topic)
+    @Bean
+    public KafkaTemplate<String, UserChangedEvent> userEventKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
     // ✅ Listener container factory with error handler
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> kafkaListenerContainerFactory(
@@ -66,21 +95,54 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         factory.setCommonErrorHandler(errorHandler(kafkaTemplate));
         return factory;
     }
 
-    // ✅ DefaultErrorHandler with DeadLetterPublishingRecoverer and retry configuration
+    // ✅ Batch variant: the listener gets each poll as a List; a BatchListenerFailedException
+    // commits the records before the failed one and retries / dead-letters from there
     @Bean
-    public DefaultErrorHandler errorHandler(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> batchKafkaListenerContainerFactory(
+            KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler(kafkaTemplate));
+        return factory;
+    }
+
+    // ✅ Parallel variant: records are handed to KeyedOrderProcessor (virtual threads, per-key order) and
+    // acknowledged out of order; async acks commit only up to the lowest fully processed offset per partition
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderEvent> parallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    // ✅ Dead-letter publishing to <topic>.DLT
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(
                 kafkaTemplate,
-                (record, ex) -> new TopicPartition(record.topic() + ".DLT", record.partition())
+                // Partition -1: the producer partitions by the original key, so per-user order carries over
+                (record, ex) -> new TopicPartition(record.topic() + ".DLT", -1)
         );
+    }
 
+    // ✅ DefaultErrorHandler with DeadLetterPublishingRecoverer and retry configuration
+    @Bean
+    public DefaultErrorHandler errorHandler(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
         // 🔹 FixedBackOff: 1 second interval, 10 retries
         FixedBackOff backOff = new FixedBackOff(1000L, 10L);
 
-        return new DefaultErrorHandler(recoverer, backOff);
+        return new DefaultErrorHandler(deadLetterPublishingRecoverer(kafkaTemplate), backOff);
     }
 }
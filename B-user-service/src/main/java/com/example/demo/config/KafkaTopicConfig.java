@@ -1,6 +1,7 @@
 package com.example.demo.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -9,11 +10,33 @@ import org.springframework.kafka.config.TopicBuilder;
 @Configuration
 public class KafkaTopicConfig {
 
+    // Must match order-service's order.kafka.partitions; order events are keyed by userId
+    @Value("${orders.kafka.partitions:3}")
+    private int ordersPartitions;
+
     @Bean
     public NewTopic ordersTopic() {
         return TopicBuilder.name("orders-topic")
-                .partitions(3)         // configure partitions
+                .partitions(ordersPartitions) // configure partitions
                 .replicas(1)           // replicas (1 for dev; >=2 in prod)
                 .build();
     }
+
+    // Same partition count as orders-topic, so dead letters of one user stay together and in order
+    @Bean
+    public NewTopic ordersDltTopic() {
+        return TopicBuilder.name("orders-topic.DLT")
+                .partitions(ordersPartitions)
+                .replicas(1)
+                .build();
+    }
+
+    // User lifecycle events, consumed by order-service to invalidate its user near-cache
+    @Bean
+    public NewTopic usersTopic() {
+        return TopicBuilder.name("users-topic")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
 }
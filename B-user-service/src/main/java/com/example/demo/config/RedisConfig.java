@@ -1,5 +1,8 @@
 package com.example.demo.config;
 
+import com.example.demo.cache.TwoTierCacheManager;
+import com.example.demo.cache.UserBinarySerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -7,14 +10,20 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Configuration
 @EnableCaching
@@ -42,17 +51,75 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Redis (L2) cache manager wrapped in the two-tier manager (L1 only when cache.local.enabled).
+     * Entry TTLs are jittered so keys written together do not all expire together.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cache.local.enabled:true}") boolean localEnabled,
+                                     @Value("${cache.local.ttl:30s}") Duration localTtl,
+                                     @Value("${cache.local.max-size:10000}") int localMaxSize,
+                                     @Value("${cache.invalidation-channel:cache-invalidation}") String channel,
+                                     @Value("${cache.codec:json}") String codec,
+                                     @Value("${cache.ttl:10m}") Duration ttl,
+                                     @Value("${cache.ttl-jitter:0.1}") double ttlJitter,
+                                     @Value("${cache.early-refresh.beta:1.0}") double earlyRefreshBeta) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10)) // Default TTL for cache entries
+                .entryTtl(jitteredTtl(ttl, ttlJitter)) // Default TTL for cache entries
                 .disableCachingNullValues()
                 // ✅ Use JSON for cache values instead of JDK serialization
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("users", withCodec(config, codec, new UserBinarySerializer()))
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, stringRedisTemplate, meterRegistry,
+                channel, localTtl.toMillis(), localEnabled ? localMaxSize : 0, earlyRefreshBeta);
+    }
+
+    // ttl stretched by a random 0..jitter fraction per entry
+    private static RedisCacheWriter.TtlFunction jitteredTtl(Duration ttl, double jitter) {
+        long baseMillis = ttl.toMillis();
+        long spreadMillis = (long) (baseMillis * jitter);
+        if (spreadMillis <= 0) {
+            return RedisCacheWriter.TtlFunction.just(ttl);
+        }
+        return (key, value) -> Duration.ofMillis(baseMillis + ThreadLocalRandom.current().nextLong(spreadMillis + 1));
+    }
+
+    /**
+     * cache.codec=binary switches a cache to its compact codec. Binary entries live under their own
+     * key prefix ("users:bin::42"), so JSON and binary instances never read each other's entries
+     * during a rollout.
+     */
+    private static <T> RedisCacheConfiguration withCodec(RedisCacheConfiguration config, String codec,
+                                                         RedisSerializer<T> binarySerializer) {
+        if (!"binary".equalsIgnoreCase(codec)) {
+            return config;
+        }
+        return config
+                .computePrefixWith(cacheName -> cacheName + ":bin::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(binarySerializer));
+    }
+
+    /**
+     * Subscribes the two-tier cache manager to invalidations published by other instances.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTier) {
+            container.addMessageListener(twoTier, new ChannelTopic(twoTier.getChannel()));
+        }
+        return container;
     }
 }
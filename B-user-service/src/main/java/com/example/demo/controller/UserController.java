@@ -1,7 +1,11 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,8 +13,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.demo.dto.UserPage;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
 
@@ -21,7 +30,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public User createUser(@RequestBody User user) {
@@ -33,11 +45,42 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    // GET /api/users?after=<id>&limit=<n> → one keyset page of summaries plus the cursor for the next one
+    @GetMapping(params = "limit")
+    public UserPage getUsersPage(@RequestParam(defaultValue = "0") long after, @RequestParam int limit) {
+        return userService.getUsersPage(after, limit);
+    }
+
+    // Accept: application/x-ndjson → every user summary, one JSON document per line, written as it is read
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = out -> userService.forEachUser(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @GetMapping("/{id}")
     public User getUserById(@PathVariable Long id) {
         return userService.getUserById(id);
     }
 
+    @GetMapping("/{id}/exists")
+    public boolean userExists(@PathVariable Long id) {
+        return userService.existsById(id);
+    }
+
+    // Batch variant: returns the ids from the request body that exist
+    @PostMapping("/exists")
+    public List<Long> existingUserIds(@RequestBody List<Long> ids) {
+        return userService.findExistingIds(ids);
+    }
+
     @PutMapping("/{id}")
     public User updateUser(@PathVariable Long id, @RequestBody User user) {
         user.setId(id); // ensure path ID is applied
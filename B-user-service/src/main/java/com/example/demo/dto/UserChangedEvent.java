@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Published on users-topic whenever a user is created, updated or deleted
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private Long userId;
+    private Type type;
+}
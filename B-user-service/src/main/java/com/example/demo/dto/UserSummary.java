@@ -4,12 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// Read-only view of a user, built straight from a JPQL constructor expression (never a managed entity)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class UserResponse {
+public class UserSummary {
     private Long id;
     private String name;
     private String email;
 }
-
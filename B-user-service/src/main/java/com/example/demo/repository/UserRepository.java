@@ -1,9 +1,24 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Only the ids come back; no entity hydration
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset page as a projection: only id, name and email are selected, nothing is managed or dirty-checked
+    @Query("select new com.example.demo.dto.UserSummary(u.id, u.name, u.email) "
+            + "from User u where u.id > :afterId order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Processes order events on virtual threads while keeping per-key order: records with the
+ * same key (userId) are chained one after another, different keys run in parallel.
+ * Every record is acknowledged once it is handled or dead-lettered; with async acks the
+ * container only commits up to the lowest offset below which everything is acknowledged.
+ */
+@Slf4j
+@Component
+public class KeyedOrderProcessor {
+
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final int retries;
+    private final long backoffMillis;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Tail of each key's chain; removed when the chain drains
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public KeyedOrderProcessor(DeadLetterPublishingRecoverer deadLetterRecoverer,
+                               @Value("${orders.consumer.parallel.retries:3}") int retries,
+                               @Value("${orders.consumer.parallel.backoff:1s}") Duration backoff,
+                               MeterRegistry registry) {
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.retries = retries;
+        this.backoffMillis = backoff.toMillis();
+        Gauge.builder("orders.consumer.parallel.keys", tails, Map::size)
+                .description("Keys with order events queued or in progress")
+                .register(registry);
+    }
+
+    public void submit(ConsumerRecord<String, OrderEvent> record, Acknowledgment ack, Consumer<OrderEvent> handler) {
+        String key = keyOf(record);
+        CompletableFuture<Void> next = tails.compute(key, (k, tail) -> {
+            CompletableFuture<Void> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            return previous.thenRunAsync(() -> handle(record, ack, handler), executor);
+        });
+        next.whenComplete((r, ex) -> tails.remove(key, next));
+    }
+
+    // Never throws, so one failed record cannot break its key's chain
+    private void handle(ConsumerRecord<String, OrderEvent> record, Acknowledgment ack, Consumer<OrderEvent> handler) {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    handler.accept(record.value());
+                    break;
+                } catch (RuntimeException e) {
+                    if (attempt >= retries) {
+                        deadLetter(record, e);
+                        break;
+                    }
+                    log.warn("⚠️ Attempt {} failed for {}-{}@{}, retrying: {}", attempt + 1,
+                            record.topic(), record.partition(), record.offset(), e.getMessage());
+                    Thread.sleep(backoffMillis);
+                }
+            }
+            ack.acknowledge();
+        } catch (InterruptedException e) {
+            // Shutting down: leave the record unacknowledged so it is redelivered
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Keeps trying until the dead letter is written: the offset must not be committed before that
+    private void deadLetter(ConsumerRecord<String, OrderEvent> record, Exception cause) throws InterruptedException {
+        while (true) {
+            try {
+                deadLetterRecoverer.accept(record, cause);
+                log.error("📮 Sent {}-{}@{} to DLT after {} retries", record.topic(), record.partition(),
+                        record.offset(), retries);
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Could not publish {}-{}@{} to DLT, retrying: {}", record.topic(), record.partition(),
+                        record.offset(), e.getMessage());
+                Thread.sleep(backoffMillis);
+            }
+        }
+    }
+
+    // Records without a key have no ordering requirement beyond their own partition
+    private static String keyOf(ConsumerRecord<String, OrderEvent> record) {
+        if (record.key() != null) {
+            return record.key();
+        }
+        if (record.value() != null && record.value().getUserId() != null) {
+            return record.value().getUserId();
+        }
+        return record.topic() + "-" + record.partition();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
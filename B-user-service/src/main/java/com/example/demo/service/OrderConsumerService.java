@@ -2,36 +2,82 @@ package com.example.demo.service;
 
 import com.example.demo.dto.OrderEvent;
 import com.example.demo.util.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.example.demo.util.VerifiedClaims;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 public class OrderConsumerService {
 
     private final String topicName;
     private final JwtUtil jwtUtil;
+    private final KeyedOrderProcessor keyedOrderProcessor;
 
     // Inject the topic bean + JwtUtil
-    public OrderConsumerService(NewTopic ordersTopic, JwtUtil jwtUtil) {
+    public OrderConsumerService(NewTopic ordersTopic, JwtUtil jwtUtil, KeyedOrderProcessor keyedOrderProcessor) {
         this.topicName = ordersTopic.name();
         this.jwtUtil = jwtUtil;
+        this.keyedOrderProcessor = keyedOrderProcessor;
     }
 
     public String getTopicName() {
         return topicName;
     }
 
-    // ✅ Main consumer for "orders-topic"
+    // ✅ Main consumer for "orders-topic" (orders.consumer.mode=record, the default)
     @KafkaListener(
+            id = "orders-consumer",
             topics = "#{__listener.topicName}",
             groupId = "user-service-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{'${orders.consumer.mode:record}' == 'record'}"
     )
     public void consume(OrderEvent event) {
+        process(event);
+    }
+
+    // ✅ Batch consumer for "orders-topic" (mode=batch): one call per poll, same group as the record listener
+    @KafkaListener(
+            id = "orders-batch-consumer",
+            topics = "#{__listener.topicName}",
+            groupId = "user-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{'${orders.consumer.mode:record}' == 'batch'}"
+    )
+    public void consumeBatch(List<OrderEvent> events) {
+        log.info("📥 User-Service received batch of {} Order events", events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                process(events.get(i));
+            } catch (RuntimeException e) {
+                // Records before i are done; the error handler retries / dead-letters from i on
+                throw new BatchListenerFailedException("Failed to process " + events.get(i), e, i);
+            }
+        }
+    }
+
+    // ✅ Parallel consumer for "orders-topic" (mode=parallel): processing runs on virtual threads,
+    // one chain per userId, so I/O-bound handling is not capped by the partition count
+    @KafkaListener(
+            id = "orders-parallel-consumer",
+            topics = "#{__listener.topicName}",
+            groupId = "user-service-group",
+            containerFactory = "parallelKafkaListenerContainerFactory",
+            autoStartup = "#{'${orders.consumer.mode:record}' == 'parallel'}"
+    )
+    public void consumeParallel(ConsumerRecord<String, OrderEvent> record, Acknowledgment ack) {
+        keyedOrderProcessor.submit(record, ack, this::process);
+    }
+
+    private void process(OrderEvent event) {
         log.info("📥 User-Service received Order event: {}", event);
 
         // 🔥 Simulate failure for testing retry + DLT
@@ -52,13 +98,14 @@ public class OrderConsumerService {
         String jwt = event.getJwtToken();
         if (jwt != null) {
             try {
-                if (jwtUtil.validateToken(jwt)) {
-                    Claims claims = jwtUtil.extractAllClaims(jwt);
-                    String username = claims.getSubject();
-                    String role = claims.get("role", String.class);
+                VerifiedClaims verified = jwtUtil.verify(jwt);
+                if (verified.isValid()) {
+                    String username = verified.getSubject();
+                    String role = verified.getRole();
 
                     log.info("✅ Valid JWT from Kafka event → User: {}, Role: {}", username, role);
                 } else {
+                    jwtUtil.logFailure(verified);
                     log.error("❌ Invalid JWT received in Kafka event");
                     throw new RuntimeException("Invalid JWT");
                 }
@@ -0,0 +1,34 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes user lifecycle changes so other services can drop cached user data.
+ * Events are keyed by user id, so changes to one user stay ordered.
+ */
+@Slf4j
+@Service
+public class UserEventPublisher {
+
+    private final KafkaTemplate<String, UserChangedEvent> kafkaTemplate;
+    private final String topicName;
+
+    public UserEventPublisher(KafkaTemplate<String, UserChangedEvent> userEventKafkaTemplate,
+                              NewTopic usersTopic) {
+        this.kafkaTemplate = userEventKafkaTemplate;
+        this.topicName = usersTopic.name();
+    }
+
+    public void publish(Long userId, UserChangedEvent.Type type) {
+        kafkaTemplate.send(topicName, String.valueOf(userId), new UserChangedEvent(userId, type))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Failed to publish {} for user {}: {}", type, userId, ex.getMessage());
+                    }
+                });
+    }
+}
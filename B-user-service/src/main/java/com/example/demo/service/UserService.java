@@ -1,21 +1,35 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.UserChangedEvent;
+import com.example.demo.dto.UserPage;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
+    private final UserEventPublisher userEventPublisher;
+
+    @Value("${users.page.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${users.page.stream-chunk-size:500}")
+    private int streamChunkSize;
 
     /**
      * Create a user and put the saved user into cache under key = saved.id
@@ -24,6 +38,7 @@ public class UserService {
     public User createUser(User user) {
         User saved = userRepository.save(user);
         log.info("DB → created user id={}", saved.getId());
+        userEventPublisher.publish(saved.getId(), UserChangedEvent.Type.CREATED);
         return saved;
     }
 
@@ -33,17 +48,56 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    // Keyset page of user summaries with id > afterId; limit is clamped to users.page.max-limit
+    public UserPage getUsersPage(long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageLimit));
+        List<UserSummary> items = userRepository.findSummariesAfter(afterId, PageRequest.ofSize(size));
+        Long nextCursor = items.size() < size ? null : items.get(items.size() - 1).getId();
+        return new UserPage(items, nextCursor);
+    }
+
+    // Hands every user summary to the sink in id order, one keyset chunk in memory at a time
+    public void forEachUser(Consumer<UserSummary> sink) {
+        long afterId = 0;
+        while (true) {
+            List<UserSummary> chunk = userRepository.findSummariesAfter(afterId, PageRequest.ofSize(streamChunkSize));
+            chunk.forEach(sink);
+            if (chunk.size() < streamChunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
     /**
      * Cache reads by user id. First call -> DB + cache write.
      * Subsequent calls -> returned from cache (no DB log).
+     * sync -> concurrent misses for the same id share one DB load.
      */
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", sync = true)
     public User getUserById(Long id) {
         log.info("DB → fetching user id={}", id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found: " + id));
     }
 
+    /**
+     * Cheap existence check (select count, no entity load).
+     */
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    /**
+     * Batch existence check → the subset of ids that exist.
+     */
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findExistingIds(ids);
+    }
+
     /**
      * Update → write through to DB and update cache entry for this id.
      */
@@ -51,6 +105,7 @@ public class UserService {
     public User updateUser(User user) {
         User updated = userRepository.save(user);
         log.info("DB → updated user id={}", updated.getId());
+        userEventPublisher.publish(updated.getId(), UserChangedEvent.Type.UPDATED);
         return updated;
     }
 
@@ -61,5 +116,6 @@ public class UserService {
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
         log.info("DB → deleted user id={}", id);
+        userEventPublisher.publish(id, UserChangedEvent.Type.DELETED);
     }
 }
@@ -0,0 +1,66 @@
+package com.example.demo.util;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Outcome of a single-pass JWT verification: either the verified claims,
+ * or the reason the token was rejected. Never thrown, always returned.
+ */
+public final class VerifiedClaims {
+
+    public enum Failure {
+        EXPIRED,
+        BAD_SIGNATURE,
+        MALFORMED,
+        UNSUPPORTED,
+        MISSING
+    }
+
+    private final Claims claims;
+    private final Failure failure;
+    private final String message;
+
+    private VerifiedClaims(Claims claims, Failure failure, String message) {
+        this.claims = claims;
+        this.failure = failure;
+        this.message = message;
+    }
+
+    public static VerifiedClaims valid(Claims claims) {
+        return new VerifiedClaims(claims, null, null);
+    }
+
+    public static VerifiedClaims failed(Failure failure, String message) {
+        return new VerifiedClaims(null, failure, message);
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+
+    /**
+     * The verified claims, or null if verification failed.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * The reason verification failed, or null if the token is valid.
+     */
+    public Failure getFailure() {
+        return failure;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getSubject() {
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public String getRole() {
+        return claims != null ? claims.get("role", String.class) : null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.example.demo.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoTierCacheTest {
+
+    private final AtomicReference<Runnable> duringRemoteRead = new AtomicReference<>();
+
+    // L2 that can run a hook in the middle of a read, after the old value has been fetched
+    private final ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager() {
+        @Override
+        protected Cache createConcurrentMapCache(String name) {
+            return new ConcurrentMapCache(name, false) {
+                @Override
+                public ValueWrapper get(Object key) {
+                    ValueWrapper wrapper = super.get(key);
+                    Runnable hook = duringRemoteRead.getAndSet(null);
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return wrapper;
+                }
+            };
+        }
+    };
+
+    private final TwoTierCacheManager manager = new TwoTierCacheManager(remoteManager,
+            mock(StringRedisTemplate.class), new SimpleMeterRegistry(), "test-invalidation", 30_000, 100, 0);
+    private final Cache cache = manager.getCache("users");
+
+    @Test
+    void readsThroughToL2AndServesFromL1() {
+        remoteManager.getCache("users").put(1L, "v1");
+
+        assertEquals("v1", cache.get(1L).get());
+        remoteManager.getCache("users").put(1L, "changed behind our back");
+        assertEquals("v1", cache.get(1L).get());
+    }
+
+    @Test
+    void readerRacingALocalPutDoesNotPromoteTheOldValue() {
+        remoteManager.getCache("users").put(1L, "old");
+        duringRemoteRead.set(() -> cache.put(1L, "new"));
+
+        cache.get(1L); // may see "old", but must not keep it in L1
+
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    @Test
+    void readerRacingARemoteInvalidationDoesNotPromoteTheOldValue() {
+        remoteManager.getCache("users").put(1L, "old");
+        duringRemoteRead.set(() -> {
+            remoteManager.getCache("users").put(1L, "new");
+            ((TwoTierCache) cache).evictLocal("1");
+        });
+
+        cache.get(1L);
+
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    @Test
+    void loaderRacingAnEvictionDoesNotPromoteItsResult() {
+        Object loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "loaded before the evict";
+        });
+        remoteManager.getCache("users").put(1L, "new");
+
+        assertEquals("loaded before the evict", loaded);
+        assertEquals("new", cache.get(1L).get());
+    }
+
+    // Two user-service instances sharing one binary-encoded "users" L2, with published
+    // invalidations relayed to every other instance as the Redis channel would
+    @Test
+    void userChangesOnOneInstanceReachTheOtherThroughBinaryL2AndChannel() {
+        ConcurrentMapCacheManager binaryRemote = binaryUsersRemote();
+        List<TwoTierCacheManager> instances = new ArrayList<>();
+        StringRedisTemplate channel = mock(StringRedisTemplate.class);
+        doAnswer(inv -> {
+            DefaultMessage message = new DefaultMessage(inv.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8),
+                    inv.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8));
+            instances.forEach(instance -> instance.onMessage(message, null));
+            return null;
+        }).when(channel).convertAndSend(anyString(), anyString());
+        instances.add(new TwoTierCacheManager(binaryRemote, channel, new SimpleMeterRegistry(), "users-invalidation", 30_000, 100, 0));
+        instances.add(new TwoTierCacheManager(binaryRemote, channel, new SimpleMeterRegistry(), "users-invalidation", 30_000, 100, 0));
+        Cache writer = instances.get(0).getCache("users");
+        Cache reader = instances.get(1).getCache("users");
+
+        User alice = user(1L, "Zoë Ω", "zoe@example.com");
+        User bob = user(2L, "Bob", "bob@example.com");
+        writer.put(1L, alice); // @CachePut on create
+        writer.put(2L, bob);
+        Object stored = ((Map<?, ?>) binaryRemote.getCache("users").getNativeCache()).get(1L);
+        assertInstanceOf(byte[].class, stored, "L2 holds the binary encoding");
+        assertEquals(alice, reader.get(1L).get());
+        assertEquals(bob, reader.get(2L).get());
+
+        User renamed = user(1L, "Zoë", "zoe@example.org");
+        writer.put(1L, renamed); // @CachePut on update
+        assertEquals(renamed, reader.get(1L).get(), "stale L1 copy evicted by the invalidation");
+
+        writer.evict(1L); // @CacheEvict on delete
+        assertNull(reader.get(1L));
+
+        writer.clear(); // whole-cache invalidation empties the other instance's L1 too
+        assertNull(reader.get(2L));
+    }
+
+    private static User user(Long id, String name, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    // "users" L2 that stores what UserBinarySerializer writes to Redis under cache.codec=binary
+    private static ConcurrentMapCacheManager binaryUsersRemote() {
+        UserBinarySerializer serializer = new UserBinarySerializer();
+        return new ConcurrentMapCacheManager("users") {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name, false) {
+                    @Override
+                    protected Object toStoreValue(Object userValue) {
+                        return serializer.serialize((User) userValue);
+                    }
+
+                    @Override
+                    protected Object fromStoreValue(Object storeValue) {
+                        return serializer.deserialize((byte[]) storeValue);
+                    }
+                };
+            }
+        };
+    }
+}
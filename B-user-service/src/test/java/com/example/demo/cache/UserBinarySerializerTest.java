@@ -0,0 +1,77 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.model.User;
+
+class UserBinarySerializerTest {
+
+    private final UserBinarySerializer serializer = new UserBinarySerializer();
+
+    private static User user(Long id, String name, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        User user = user(42L, "Zoë Ω", "zoe@example.com");
+
+        assertEquals(user, serializer.deserialize(serializer.serialize(user)));
+    }
+
+    @Test
+    void roundTripsMissingFieldsAsNull() {
+        User user = user(Long.MAX_VALUE, null, "");
+
+        User read = serializer.deserialize(serializer.serialize(user));
+
+        assertEquals(user, read);
+        assertNull(read.getName());
+    }
+
+    @Test
+    void nullAndEmptyReadAsMiss() {
+        assertNull(serializer.serialize(null));
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void unknownVersionReadsAsMiss() {
+        byte[] bytes = serializer.serialize(user(1L, "a", "b"));
+        bytes[0] = (byte) (UserBinarySerializer.VERSION + 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void jsonEntryReadsAsMiss() {
+        assertNull(serializer.deserialize("{\"id\":42}".getBytes()));
+    }
+
+    @Test
+    void truncatedEntryReadsAsMiss() {
+        byte[] bytes = serializer.serialize(user(300L, "name", "name@example.com"));
+
+        for (int length = 1; length < bytes.length; length++) {
+            assertNull(serializer.deserialize(Arrays.copyOf(bytes, length)), "truncated to " + length);
+        }
+    }
+
+    @Test
+    void corruptStringLengthReadsAsMiss() {
+        byte[] bytes = serializer.serialize(user(null, "name", null));
+        bytes[2] = 0x7E; // zigzag length 63, past the end of the entry
+
+        assertNull(serializer.deserialize(bytes));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.example.demo.model.User;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Size and encode/decode time of a cached user with the "users" cache's two codecs: the
+ * GenericJackson2JsonRedisSerializer RedisConfig uses by default (field names plus @class) and
+ * UserBinarySerializer (cache.codec=binary). Numbers are logged for comparison; only the round
+ * trip is asserted.
+ */
+@Slf4j
+class UserCodecBenchmarkTest {
+
+    private static final int WARMUP = 100_000;
+    private static final int ITERATIONS = 500_000;
+
+    @Test
+    void jsonVersusBinary() {
+        User user = new User();
+        user.setId(1_048_576L);
+        user.setName("Ada Lovelace");
+        user.setEmail("ada.lovelace@example.com");
+
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+        UserBinarySerializer binary = new UserBinarySerializer();
+
+        run("JSON", json::serialize, json::deserialize, user, WARMUP);
+        run("binary", binary::serialize, binary::deserialize, user, WARMUP);
+
+        log.info("📊 {}", run("JSON", json::serialize, json::deserialize, user, ITERATIONS));
+        log.info("📊 {}", run("binary", binary::serialize, binary::deserialize, user, ITERATIONS));
+    }
+
+    private static String run(String label, Encoder encoder, Decoder decoder, User user, int iterations) {
+        byte[] bytes = encoder.encode(user);
+        assertEquals(user, decoder.decode(bytes));
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += encoder.encode(user).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += user.getId().equals(((User) decoder.decode(bytes)).getId()) ? 1 : 0;
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        assertEquals((long) iterations * (bytes.length + 1), checksum);
+        return String.format("%s: %d bytes, encode %.0f ns, decode %.0f ns", label, bytes.length,
+                (double) encodeNanos / iterations, (double) decodeNanos / iterations);
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode(User user);
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        Object decode(byte[] bytes);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.dto.OrderEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains a pre-filled topic through the container factories of KafkaConsumerConfig against an
+ * embedded broker and logs throughput and the time until the group's lag is zero, for:
+ * <ul>
+ *   <li>baseline — record listener, one consumer thread, Kafka's fetch defaults (fetch.min.bytes=1,
+ *       fetch.max.wait.ms=500, max.poll.records=500)</li>
+ *   <li>tuned record / tuned batch — one thread per partition, fetch-min-bytes 16 KB, fetch-max-wait 100 ms</li>
+ * </ul>
+ * A warm-up drain runs first so no configuration pays for a cold JVM. Only completeness is asserted;
+ * the numbers are for comparing settings, not for gating the build.
+ */
+@Slf4j
+@EmbeddedKafka(partitions = 3, topics = {
+        KafkaConsumerBenchmarkTest.WARMUP_TOPIC, KafkaConsumerBenchmarkTest.BASELINE_TOPIC,
+        KafkaConsumerBenchmarkTest.RECORD_TOPIC, KafkaConsumerBenchmarkTest.BATCH_TOPIC})
+class KafkaConsumerBenchmarkTest {
+
+    static final String WARMUP_TOPIC = "orders-bench-warmup";
+    static final String BASELINE_TOPIC = "orders-bench-baseline";
+    static final String RECORD_TOPIC = "orders-bench-record";
+    static final String BATCH_TOPIC = "orders-bench-batch";
+
+    private static final int EVENTS = 30_000;
+    private static final int PARTITIONS = 3;
+    private static final String GROUP = "user-service-group";
+
+    @Test
+    void baselineVersusTunedSettings(EmbeddedKafkaBroker broker) throws Exception {
+        KafkaConsumerConfig baseline = config(broker, 1, 500, 1, 500);
+        KafkaConsumerConfig tuned = config(broker, PARTITIONS, 500, 16_384, 100);
+
+        for (String topic : new String[] {WARMUP_TOPIC, BASELINE_TOPIC, RECORD_TOPIC, BATCH_TOPIC}) {
+            fill(broker, topic);
+        }
+
+        drain(broker, tuned, WARMUP_TOPIC, "warm-up", false);
+        drain(broker, baseline, BASELINE_TOPIC, "baseline record", false);
+        drain(broker, tuned, RECORD_TOPIC, "tuned record", false);
+        drain(broker, tuned, BATCH_TOPIC, "tuned batch", true);
+    }
+
+    private void drain(EmbeddedKafkaBroker broker, KafkaConsumerConfig config, String topic, String label,
+                       boolean batch) throws Exception {
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicLong listenerCalls = new AtomicLong();
+        // Timings start at the first delivery, so the group join / partition assignment is not counted
+        AtomicLong firstDelivery = new AtomicLong();
+
+        ConcurrentKafkaListenerContainerFactory<String, OrderEvent> factory = batch
+                ? config.batchKafkaListenerContainerFactory(config.kafkaTemplate())
+                : config.kafkaListenerContainerFactory(config.kafkaTemplate());
+        ConcurrentMessageListenerContainer<String, OrderEvent> container = factory.createContainer(topic);
+        if (batch) {
+            container.setupMessageListener((BatchMessageListener<String, OrderEvent>) records -> {
+                firstDelivery.compareAndSet(0, System.nanoTime());
+                listenerCalls.incrementAndGet();
+                consumed.addAndGet(records.size());
+            });
+        } else {
+            container.setupMessageListener((MessageListener<String, OrderEvent>) record -> {
+                firstDelivery.compareAndSet(0, System.nanoTime());
+                listenerCalls.incrementAndGet();
+                consumed.incrementAndGet();
+            });
+        }
+        container.getContainerProperties().setGroupId(GROUP);
+        // The topic is filled before the group exists; the app's default (latest) would skip all of it
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        container.getContainerProperties().setKafkaConsumerProperties(overrides);
+
+        container.start();
+        try {
+            waitFor(() -> consumed.get() >= EVENTS);
+            long consumedNanos = System.nanoTime() - firstDelivery.get();
+            waitFor(() -> lag(broker, topic) == 0);
+            long zeroLagNanos = System.nanoTime() - firstDelivery.get();
+
+            assertEquals(EVENTS, consumed.get(), "every event delivered once");
+            log.info("📊 {}: {} events in {} ms → {} events/s, {} listener calls, lag 0 after {} ms",
+                    label, EVENTS, TimeUnit.NANOSECONDS.toMillis(consumedNanos),
+                    Math.round(EVENTS / (consumedNanos / 1e9)), listenerCalls.get(),
+                    TimeUnit.NANOSECONDS.toMillis(zeroLagNanos));
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static KafkaConsumerConfig config(EmbeddedKafkaBroker broker, int concurrency, int maxPollRecords,
+                                              int fetchMinBytes, int fetchMaxWaitMs) {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(config, "concurrency", concurrency);
+        ReflectionTestUtils.setField(config, "maxPollRecords", maxPollRecords);
+        ReflectionTestUtils.setField(config, "fetchMinBytes", fetchMinBytes);
+        ReflectionTestUtils.setField(config, "fetchMaxWaitMs", fetchMaxWaitMs);
+        return config;
+    }
+
+    private static void fill(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 10);
+        DefaultKafkaProducerFactory<String, OrderEvent> producerFactory = new DefaultKafkaProducerFactory<>(props);
+        try {
+            KafkaTemplate<String, OrderEvent> template = new KafkaTemplate<>(producerFactory);
+            for (int i = 0; i < EVENTS; i++) {
+                String userId = "user-" + (i % 50);
+                // Odd order ids: OrderConsumerService.process() simulates a failure for even ones
+                template.send(topic, userId, new OrderEvent("O" + (i * 2 + 1), userId, 10.0, null));
+            }
+            template.flush();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    // Sum over partitions of (log end offset - committed offset) for the group
+    private static long lag(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(GROUP, "false", broker);
+        try (var consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer()) {
+            long lag = 0;
+            for (int p = 0; p < PARTITIONS; p++) {
+                TopicPartition partition = new TopicPartition(topic, p);
+                long end = consumer.endOffsets(Set.of(partition)).get(partition);
+                OffsetAndMetadata committed = consumer.committed(Set.of(partition)).get(partition);
+                lag += end - (committed != null ? committed.offset() : 0);
+            }
+            return lag;
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.config.KafkaConsumerConfig;
+import com.example.demo.dto.OrderEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs KeyedOrderProcessor behind containers built by KafkaConsumerConfig.parallelKafkaListenerContainerFactory
+ * against an embedded broker.
+ */
+@EmbeddedKafka(partitions = 1, topics = {KeyedOrderProcessorTest.ORDER_TOPIC, KeyedOrderProcessorTest.COMMIT_TOPIC,
+        KeyedOrderProcessorTest.FAILING_TOPIC})
+class KeyedOrderProcessorTest {
+
+    static final String ORDER_TOPIC = "keyed-order-topic";
+    static final String COMMIT_TOPIC = "keyed-commit-topic";
+    static final String FAILING_TOPIC = "keyed-failing-topic";
+
+    private static final int RETRIES = 2;
+
+    private final DeadLetterPublishingRecoverer recoverer = mock(DeadLetterPublishingRecoverer.class);
+    private final KeyedOrderProcessor processor = new KeyedOrderProcessor(recoverer,
+            RETRIES, Duration.ofMillis(10), new SimpleMeterRegistry());
+    private final List<ConcurrentMessageListenerContainer<String, OrderEvent>> containers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+        processor.shutdown();
+    }
+
+    @Test
+    void keepsPerKeyOrderWhileKeysRunInParallel(EmbeddedKafkaBroker broker) throws Exception {
+        int perUser = 30;
+        List<String> users = List.of("u1", "u2", "u3", "u4");
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(perUser * users.size());
+
+        start(broker, ORDER_TOPIC, "keyed-order-group", event -> {
+            sleepQuietly(ThreadLocalRandom.current().nextInt(3)); // shuffle completion across keys
+            seen.computeIfAbsent(event.getUserId(), u -> new CopyOnWriteArrayList<>())
+                    .add(Integer.parseInt(event.getOrderId().substring(1)));
+            done.countDown();
+        });
+
+        KafkaTemplate<String, OrderEvent> template = template(broker);
+        for (int i = 0; i < perUser; i++) {
+            for (String user : users) {
+                template.send(ORDER_TOPIC, user, new OrderEvent("O" + i, user, 1.0, null));
+            }
+        }
+        template.flush();
+
+        assertTrue(done.await(30, TimeUnit.SECONDS), "all events processed");
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < perUser; i++) {
+            expected.add(i);
+        }
+        for (String user : users) {
+            assertEquals(expected, seen.get(user), "order for " + user);
+        }
+    }
+
+    @Test
+    void doesNotCommitPastAnUnacknowledgedRecord(EmbeddedKafkaBroker broker) throws Exception {
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        CountDownLatch othersDone = new CountDownLatch(3);
+
+        start(broker, COMMIT_TOPIC, "keyed-commit-group", event -> {
+            if ("slow".equals(event.getUserId())) {
+                awaitQuietly(releaseSlow);
+            } else {
+                othersDone.countDown();
+            }
+        });
+
+        KafkaTemplate<String, OrderEvent> template = template(broker);
+        template.send(COMMIT_TOPIC, "slow", new OrderEvent("O0", "slow", 1.0, null)); // offset 0
+        for (int i = 1; i <= 3; i++) {
+            template.send(COMMIT_TOPIC, "fast", new OrderEvent("O" + i, "fast", 1.0, null));
+        }
+        template.flush();
+
+        assertTrue(othersDone.await(30, TimeUnit.SECONDS), "later records processed while offset 0 is held");
+        Thread.sleep(1000); // many poll/commit cycles of the container
+        assertNull(committed(broker, COMMIT_TOPIC, "keyed-commit-group"), "nothing committed while offset 0 is unacknowledged");
+
+        releaseSlow.countDown();
+        waitFor(() -> {
+            OffsetAndMetadata offset = committed(broker, COMMIT_TOPIC, "keyed-commit-group");
+            return offset != null && offset.offset() == 4;
+        });
+    }
+
+    @Test
+    void deadLettersOnceAfterRetriesAndCommitsOnlyAfterwards(EmbeddedKafkaBroker broker) throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch recovering = new CountDownLatch(1);
+        CountDownLatch releaseRecoverer = new CountDownLatch(1);
+        CountDownLatch othersDone = new CountDownLatch(3);
+        doAnswer(inv -> {
+            recovering.countDown();
+            releaseRecoverer.await(30, TimeUnit.SECONDS); // a slow DLT write
+            return null;
+        }).when(recoverer).accept(any(), any());
+
+        start(broker, FAILING_TOPIC, "keyed-failing-group", event -> {
+            if ("poison".equals(event.getUserId())) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("cannot process " + event.getOrderId());
+            }
+            othersDone.countDown();
+        });
+
+        KafkaTemplate<String, OrderEvent> template = template(broker);
+        template.send(FAILING_TOPIC, "poison", new OrderEvent("O0", "poison", 1.0, null)); // offset 0
+        for (int i = 1; i <= 3; i++) {
+            template.send(FAILING_TOPIC, "fine", new OrderEvent("O" + i, "fine", 1.0, null));
+        }
+        template.flush();
+
+        assertTrue(recovering.await(30, TimeUnit.SECONDS), "failed record handed to the recoverer");
+        assertTrue(othersDone.await(30, TimeUnit.SECONDS), "other keys processed meanwhile");
+        assertEquals(RETRIES + 1, attempts.get(), "first attempt plus retries, then dead-lettered");
+        Thread.sleep(1000); // many poll/commit cycles of the container
+        assertNull(committed(broker, FAILING_TOPIC, "keyed-failing-group"), "nothing committed before the DLT write");
+
+        releaseRecoverer.countDown();
+        waitFor(() -> {
+            OffsetAndMetadata offset = committed(broker, FAILING_TOPIC, "keyed-failing-group");
+            return offset != null && offset.offset() == 4;
+        });
+        assertEquals(RETRIES + 1, attempts.get(), "no attempts after dead-lettering");
+        verify(recoverer, times(1)).accept(argThat(record -> record.offset() == 0), any(IllegalStateException.class));
+    }
+
+    // The container comes from the production factory; only the broker, the group and test timings differ
+    private void start(EmbeddedKafkaBroker broker, String topic, String group, Consumer<OrderEvent> handler) {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(config, "concurrency", 1);
+        ReflectionTestUtils.setField(config, "maxPollRecords", 500);
+        ReflectionTestUtils.setField(config, "fetchMinBytes", 1);
+        ReflectionTestUtils.setField(config, "fetchMaxWaitMs", 100);
+
+        ConcurrentMessageListenerContainer<String, OrderEvent> container =
+                config.parallelKafkaListenerContainerFactory().createContainer(topic);
+        container.getContainerProperties().setGroupId(group);
+        container.getContainerProperties().setPollTimeout(100); // acks from processor threads are handled between polls
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        container.getContainerProperties().setKafkaConsumerProperties(overrides);
+        container.setupMessageListener((AcknowledgingMessageListener<String, OrderEvent>) (record, ack) ->
+                processor.submit(record, ack, handler));
+        container.start();
+        containers.add(container);
+    }
+
+    private static KafkaTemplate<String, OrderEvent> template(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    private static OffsetAndMetadata committed(EmbeddedKafkaBroker broker, String topic, String group) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(group + "-probe", "false", broker);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, group);
+        TopicPartition partition = new TopicPartition(topic, 0);
+        try (var consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer()) {
+            return consumer.committed(Set.of(partition)).get(partition);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(100);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}